@@ -0,0 +1,54 @@
+package com.scalar.db.benchmarks.tpcc;
+
+import com.scalar.db.benchmarks.tpcc.table.Customer;
+import com.scalar.db.benchmarks.tpcc.table.OrderLine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the random input generation of the TPC-C transactions and loader. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TpccUtilBenchmark {
+
+  @Benchmark
+  public int nonUniformRandomCustomerId() {
+    return TpccUtil.getCustomerId();
+  }
+
+  @Benchmark
+  public int nonUniformRandomItemId() {
+    return TpccUtil.getItemId();
+  }
+
+  @Benchmark
+  public String nonUniformRandomLastName() {
+    return TpccUtil.getNonUniformRandomLastNameForRun();
+  }
+
+  @Benchmark
+  public String randomDistInfo() {
+    return TpccUtil.randomAlphaString(OrderLine.DIST_INFO_SIZE);
+  }
+
+  @Benchmark
+  public String randomCustomerData() {
+    return TpccUtil.randomAlphaString(Customer.MIN_DATA, Customer.MAX_DATA);
+  }
+
+  @Benchmark
+  public String randomPhoneNumber() {
+    return TpccUtil.randomNumberString(Customer.PHONE_SIZE);
+  }
+}
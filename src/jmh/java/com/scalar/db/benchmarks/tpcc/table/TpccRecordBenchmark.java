@@ -0,0 +1,181 @@
+package com.scalar.db.benchmarks.tpcc.table;
+
+import com.scalar.db.api.Put;
+import com.scalar.db.io.BigIntValue;
+import com.scalar.db.io.DoubleValue;
+import com.scalar.db.io.IntValue;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextValue;
+import com.scalar.db.io.Value;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares building the {@code Put} objects of the TPC-C transactions with the typed records
+ * against the former {@code Map<String, Object>} based records.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TpccRecordBenchmark {
+
+  private static final String DIST_INFO = "abcdefghijklmnopqrstuvwx";
+  private static final String DATA = "customer data customer data customer data customer data";
+
+  private final Date date = new Date();
+  private int counter;
+
+  @Benchmark
+  public Put typedStock() {
+    int itemId = nextId();
+    return new Stock(1, itemId, 50, 10.0, 3, 1).createPut();
+  }
+
+  @Benchmark
+  public Put mapBasedStock() {
+    int itemId = nextId();
+    MapRecord record = new MapRecord(Stock.TABLE_NAME, false);
+    record.partitionKeyMap.put(Stock.KEY_WAREHOUSE_ID, 1);
+    record.partitionKeyMap.put(Stock.KEY_ITEM_ID, itemId);
+    record.valueMap.put(Stock.KEY_QUANTITY, 50);
+    record.valueMap.put(Stock.KEY_YTD, 10.0);
+    record.valueMap.put(Stock.KEY_ORDER_CNT, 3);
+    record.valueMap.put(Stock.KEY_REMOTE_CNT, 1);
+    return record.createPut();
+  }
+
+  @Benchmark
+  public Put typedOrderLine() {
+    int number = nextId();
+    return new OrderLine(1, 2, 3001, number, 1, 12.5, 5, number, DIST_INFO).createPut();
+  }
+
+  @Benchmark
+  public Put mapBasedOrderLine() {
+    int number = nextId();
+    MapRecord record = new MapRecord(OrderLine.TABLE_NAME, true);
+    record.partitionKeyMap.put(OrderLine.KEY_WAREHOUSE_ID, 1);
+    record.partitionKeyMap.put(OrderLine.KEY_DISTRICT_ID, 2);
+    record.clusteringKeyMap.put(OrderLine.KEY_ORDER_ID, 3001);
+    record.clusteringKeyMap.put(OrderLine.KEY_NUMBER, number);
+    record.valueMap.put(OrderLine.KEY_ITEM_ID, number);
+    record.valueMap.put(OrderLine.KEY_SUPPLY_W_ID, 1);
+    record.valueMap.put(OrderLine.KEY_DELIVERY_D, null);
+    record.valueMap.put(OrderLine.KEY_AMOUNT, 12.5);
+    record.valueMap.put(OrderLine.KEY_QUANTITY, 5);
+    record.valueMap.put(OrderLine.KEY_DIST_INFO, DIST_INFO);
+    return record.createPut();
+  }
+
+  @Benchmark
+  public Put typedCustomerPayment() {
+    int customerId = nextId();
+    return new Customer(1, 2, customerId, 100.0, 20.0, 2, DATA).createPut();
+  }
+
+  @Benchmark
+  public Put mapBasedCustomerPayment() {
+    int customerId = nextId();
+    MapRecord record = new MapRecord(Customer.TABLE_NAME, false);
+    record.partitionKeyMap.put(Customer.KEY_WAREHOUSE_ID, 1);
+    record.partitionKeyMap.put(Customer.KEY_DISTRICT_ID, 2);
+    record.partitionKeyMap.put(Customer.KEY_ID, customerId);
+    record.valueMap.put(Customer.KEY_BALANCE, 100.0);
+    record.valueMap.put(Customer.KEY_YTD_PAYMENT, 20.0);
+    record.valueMap.put(Customer.KEY_PAYMENT_CNT, 2);
+    record.valueMap.put(Customer.KEY_DATA, DATA);
+    return record.createPut();
+  }
+
+  @Benchmark
+  public Put typedOrder() {
+    int orderId = nextId();
+    return new Order(1, 2, orderId, 3, 0, 10, 1, date).createPut();
+  }
+
+  @Benchmark
+  public Put mapBasedOrder() {
+    int orderId = nextId();
+    MapRecord record = new MapRecord(Order.TABLE_NAME, true);
+    record.partitionKeyMap.put(Order.KEY_WAREHOUSE_ID, 1);
+    record.partitionKeyMap.put(Order.KEY_DISTRICT_ID, 2);
+    record.clusteringKeyMap.put(Order.KEY_ID, orderId);
+    record.valueMap.put(Order.KEY_CUSTOMER_ID, 3);
+    record.valueMap.put(Order.KEY_CARRIER_ID, 0);
+    record.valueMap.put(Order.KEY_OL_CNT, 10);
+    record.valueMap.put(Order.KEY_ALL_LOCAL, 1);
+    record.valueMap.put(Order.KEY_ENTRY_D, date);
+    return record.createPut();
+  }
+
+  private int nextId() {
+    counter = counter % 100000 + 1;
+    return counter;
+  }
+
+  /** The former map-based record, kept here as the baseline. */
+  private static class MapRecord {
+    private final String table;
+    private final Map<String, Object> partitionKeyMap = new LinkedHashMap<>();
+    private final Map<String, Object> clusteringKeyMap;
+    private final Map<String, Object> valueMap = new HashMap<>();
+
+    MapRecord(String table, boolean hasClusteringKey) {
+      this.table = table;
+      this.clusteringKeyMap = hasClusteringKey ? new LinkedHashMap<>() : null;
+    }
+
+    private Value<?> createSingleValue(String key, Object object) {
+      if (object instanceof Integer) {
+        return new IntValue(key, (Integer) object);
+      } else if (object instanceof Double) {
+        return new DoubleValue(key, (Double) object);
+      } else if (object instanceof String) {
+        return new TextValue(key, (String) object);
+      } else if (object instanceof Date) {
+        return new BigIntValue(key, ((Date) object).getTime());
+      }
+      return null;
+    }
+
+    private ArrayList<Value<?>> createValues(Map<String, Object> map) {
+      ArrayList<Value<?>> values = new ArrayList<>();
+      map.forEach(
+          (key, value) -> {
+            if (value != null) {
+              values.add(createSingleValue(key, value));
+            }
+          });
+      return values;
+    }
+
+    Put createPut() {
+      Key partitionKey = new Key(createValues(partitionKeyMap));
+      Put put;
+      if (clusteringKeyMap == null) {
+        put = new Put(partitionKey);
+      } else {
+        put = new Put(partitionKey, new Key(createValues(clusteringKeyMap)));
+      }
+      return put.forNamespace(TpccRecord.NAMESPACE)
+          .forTable(table)
+          .withValues(createValues(valueMap));
+    }
+  }
+}
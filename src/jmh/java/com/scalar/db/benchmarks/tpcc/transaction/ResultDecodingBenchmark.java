@@ -0,0 +1,87 @@
+package com.scalar.db.benchmarks.tpcc.transaction;
+
+import com.scalar.db.api.Result;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.benchmarks.tpcc.table.Stock;
+import com.scalar.db.common.ResultImpl;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.DoubleColumn;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.TextColumn;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures decoding a stock {@code Result} the way the NewOrder transaction does, with the
+ * deprecated {@code Value} accessors it uses and with the typed column accessors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultDecodingBenchmark {
+
+  private static final String DIST_INFO = "abcdefghijklmnopqrstuvwx";
+
+  private Result stock;
+
+  @Setup
+  public void setUp() {
+    TableMetadata.Builder metadata =
+        TableMetadata.newBuilder()
+            .addColumn(Stock.KEY_WAREHOUSE_ID, DataType.INT)
+            .addColumn(Stock.KEY_ITEM_ID, DataType.INT)
+            .addColumn(Stock.KEY_QUANTITY, DataType.INT)
+            .addColumn(Stock.KEY_YTD, DataType.DOUBLE)
+            .addColumn(Stock.KEY_ORDER_CNT, DataType.INT)
+            .addColumn(Stock.KEY_REMOTE_CNT, DataType.INT)
+            .addColumn(Stock.KEY_DATA, DataType.TEXT)
+            .addColumn(Stock.KEY_DISTRICT01, DataType.TEXT)
+            .addPartitionKey(Stock.KEY_WAREHOUSE_ID)
+            .addPartitionKey(Stock.KEY_ITEM_ID);
+
+    Map<String, Column<?>> columns = new HashMap<>();
+    columns.put(Stock.KEY_WAREHOUSE_ID, IntColumn.of(Stock.KEY_WAREHOUSE_ID, 1));
+    columns.put(Stock.KEY_ITEM_ID, IntColumn.of(Stock.KEY_ITEM_ID, 1));
+    columns.put(Stock.KEY_QUANTITY, IntColumn.of(Stock.KEY_QUANTITY, 50));
+    columns.put(Stock.KEY_YTD, DoubleColumn.of(Stock.KEY_YTD, 10.0));
+    columns.put(Stock.KEY_ORDER_CNT, IntColumn.of(Stock.KEY_ORDER_CNT, 3));
+    columns.put(Stock.KEY_REMOTE_CNT, IntColumn.of(Stock.KEY_REMOTE_CNT, 1));
+    columns.put(Stock.KEY_DATA, TextColumn.of(Stock.KEY_DATA, "stock data stock data stock"));
+    columns.put(Stock.KEY_DISTRICT01, TextColumn.of(Stock.KEY_DISTRICT01, DIST_INFO));
+    stock = new ResultImpl(columns, metadata.build());
+  }
+
+  @Benchmark
+  public void valueAccessors(Blackhole blackhole) {
+    blackhole.consume(stock.getValue(Stock.KEY_YTD).get().getAsDouble());
+    blackhole.consume(stock.getValue(Stock.KEY_ORDER_CNT).get().getAsInt());
+    blackhole.consume(stock.getValue(Stock.KEY_REMOTE_CNT).get().getAsInt());
+    blackhole.consume(stock.getValue(Stock.KEY_QUANTITY).get().getAsInt());
+    blackhole.consume(stock.getValue(Stock.KEY_DISTRICT01).get().getAsString().get());
+  }
+
+  @Benchmark
+  public void columnAccessors(Blackhole blackhole) {
+    blackhole.consume(stock.getDouble(Stock.KEY_YTD));
+    blackhole.consume(stock.getInt(Stock.KEY_ORDER_CNT));
+    blackhole.consume(stock.getInt(Stock.KEY_REMOTE_CNT));
+    blackhole.consume(stock.getInt(Stock.KEY_QUANTITY));
+    blackhole.consume(stock.getText(Stock.KEY_DISTRICT01));
+  }
+}
@@ -0,0 +1,69 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Put;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the per-operation client work of the YCSB workloads. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class YcsbCommonBenchmark {
+  private static final int PAYLOAD_RING_SIZE = 1024;
+
+  @Param({"100", "1000"})
+  private int payloadSize;
+
+  private char[] payload;
+  private PayloadGenerator payloadGenerator;
+  private int recordCount;
+
+  @Setup
+  public void setUp() {
+    payload = new char[payloadSize];
+    payloadGenerator = new PayloadGenerator(payloadSize, PAYLOAD_RING_SIZE);
+    recordCount = (int) YcsbCommon.DEFAULT_RECORD_COUNT;
+  }
+
+  @Benchmark
+  public char[] randomFastChars() {
+    return YcsbCommon.randomFastChars(ThreadLocalRandom.current(), payload);
+  }
+
+  @Benchmark
+  public Get prepareGet() {
+    return YcsbCommon.prepareGet(ThreadLocalRandom.current().nextInt(recordCount));
+  }
+
+  @Benchmark
+  public Put preparePut() {
+    int key = ThreadLocalRandom.current().nextInt(recordCount);
+    YcsbCommon.randomFastChars(ThreadLocalRandom.current(), payload);
+    return YcsbCommon.preparePut(key, new String(payload));
+  }
+
+  @Benchmark
+  public Put preparePutWithPayloadRing() {
+    int key = ThreadLocalRandom.current().nextInt(recordCount);
+    return YcsbCommon.preparePut(
+        YcsbCommon.NAMESPACE,
+        YcsbCommon.TABLE,
+        key,
+        payloadGenerator.next(ThreadLocalRandom.current()));
+  }
+}
@@ -0,0 +1,113 @@
+package com.scalar.db.benchmarks;
+
+import com.scalar.kelpie.config.Config;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Schedules the arrivals of operations for an open-loop benchmark. If {@code target_ops_per_sec}
+ * is specified in {@code rate_config}, the processor threads take the intended start times of their
+ * operations from one timeline shared by all threads, with a fixed interval or Poisson arrivals,
+ * and wait until the time comes. An operation that cannot start on time because all the threads
+ * are busy starts late, and its latency measured from the intended start time includes the
+ * queueing delay. Otherwise, every operation starts as soon as it is requested, as in a
+ * closed-loop benchmark.
+ */
+public class ArrivalSchedule {
+  private static final String CONFIG_NAME = "rate_config";
+  static final String TARGET_OPS_PER_SEC = "target_ops_per_sec";
+  private static final String ARRIVAL = "arrival";
+  private static final long DEFAULT_TARGET_OPS_PER_SEC = 0;
+  private static final String FIXED = "fixed";
+  private static final String POISSON = "poisson";
+  private static final String DEFAULT_ARRIVAL = FIXED;
+
+  private final double intervalNanos;
+  private final boolean poisson;
+  private final AtomicLong next = new AtomicLong();
+  private volatile boolean started;
+
+  /**
+   * Constructs a {@code ArrivalSchedule}.
+   *
+   * @param config a Kelpie {@code Config}
+   */
+  public ArrivalSchedule(Config config) {
+    long targetOpsPerSec = getTargetOpsPerSec(config);
+    this.intervalNanos =
+        targetOpsPerSec == 0 ? 0 : (double) TimeUnit.SECONDS.toNanos(1) / targetOpsPerSec;
+
+    String arrival = config.getUserString(CONFIG_NAME, ARRIVAL, DEFAULT_ARRIVAL);
+    if (arrival.equals(POISSON)) {
+      this.poisson = true;
+    } else if (arrival.equals(FIXED)) {
+      this.poisson = false;
+    } else {
+      throw new RuntimeException(ARRIVAL + " must be " + FIXED + " or " + POISSON);
+    }
+  }
+
+  /**
+   * Returns the target throughput in {@code rate_config}.
+   *
+   * @param config a Kelpie {@code Config}
+   * @return the target number of operations per second, or 0 if the arrivals are not
+   *     rate-controlled
+   */
+  static long getTargetOpsPerSec(Config config) {
+    long targetOpsPerSec =
+        config.getUserLong(CONFIG_NAME, TARGET_OPS_PER_SEC, DEFAULT_TARGET_OPS_PER_SEC);
+    if (targetOpsPerSec < 0) {
+      throw new RuntimeException(TARGET_OPS_PER_SEC + " must not be negative");
+    }
+    return targetOpsPerSec;
+  }
+
+  /**
+   * Returns whether or not the arrivals are rate-controlled.
+   *
+   * @return true if {@code target_ops_per_sec} is specified
+   */
+  public boolean isOpenLoop() {
+    return intervalNanos > 0;
+  }
+
+  /**
+   * Waits until the intended start time of the next operation.
+   *
+   * @return the {@code System.nanoTime()} at which the operation was intended to start
+   */
+  public long awaitNext() {
+    if (!isOpenLoop()) {
+      return System.nanoTime();
+    }
+
+    if (!started) {
+      synchronized (this) {
+        if (!started) {
+          next.set(System.nanoTime());
+          started = true;
+        }
+      }
+    }
+
+    long interval = nextInterval();
+    long intended = next.getAndAdd(interval);
+    long wait;
+    while ((wait = intended - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(wait);
+    }
+    return intended;
+  }
+
+  private long nextInterval() {
+    if (!poisson) {
+      return Math.round(intervalNanos);
+    }
+    // exponentially distributed inter-arrival times make a Poisson process
+    double u = 1.0 - ThreadLocalRandom.current().nextDouble();
+    return Math.round(-Math.log(u) * intervalNanos);
+  }
+}
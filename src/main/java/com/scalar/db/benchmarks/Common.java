@@ -6,8 +6,10 @@ import java.time.Duration;
 import java.util.Properties;
 
 import com.scalar.db.api.AbacAdmin;
+import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.DistributedTransactionManager;
 import com.scalar.db.config.DatabaseConfig;
+import com.scalar.db.service.StorageFactory;
 import com.scalar.db.service.TransactionFactory;
 import com.scalar.kelpie.config.Config;
 
@@ -59,10 +61,27 @@ public class Common {
 
   public static DistributedTransactionManager getTransactionManager(Config config) {
     DatabaseConfig dbConfig = getDatabaseConfig(config);
+    if (InMemoryTransactionManager.STORAGE.equals(dbConfig.getStorage())) {
+      if (!config.hasUserValue(CONFIG_NAME, "schema_file")) {
+        throw new RuntimeException(
+            "the " + InMemoryTransactionManager.STORAGE + " storage requires schema_file");
+      }
+      return new InMemoryTransactionManager(config.getUserString(CONFIG_NAME, "schema_file"));
+    }
     TransactionFactory factory = TransactionFactory.create(dbConfig.getProperties());
     return factory.getTransactionManager();
   }
 
+  public static DistributedStorage getStorage(Config config) {
+    DatabaseConfig dbConfig = getDatabaseConfig(config);
+    if (InMemoryTransactionManager.STORAGE.equals(dbConfig.getStorage())) {
+      throw new RuntimeException(
+          "the " + InMemoryTransactionManager.STORAGE + " storage supports only transactions");
+    }
+    StorageFactory factory = StorageFactory.create(dbConfig.getProperties());
+    return factory.getStorage();
+  }
+
   public static AbacAdmin getAbacAdmin(Config config) {
     DatabaseConfig dbConfig = getDatabaseConfig(config);
     TransactionFactory factory = TransactionFactory.create(dbConfig.getProperties());
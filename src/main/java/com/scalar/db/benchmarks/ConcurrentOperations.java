@@ -0,0 +1,110 @@
+package com.scalar.db.benchmarks;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Result;
+import com.scalar.db.config.DatabaseConfig;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.kelpie.config.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Issues the reads of a transaction concurrently. ScalarDB 3.15 doesn't have an API to submit
+ * multiple operations at once, so the reads are submitted to a fixed thread pool except for the
+ * last one, which the calling thread executes, and the calling thread waits for all of them.
+ *
+ * <p>A ScalarDB transaction is not documented as thread-safe. Consensus Commit keeps the records
+ * read by {@code get} in concurrent maps, but its write, delete and scan sets are plain maps, so
+ * only {@code get} may go through this class, and all the other operations of the transaction must
+ * be executed on the calling thread while no read is in flight. Other transaction managers, such
+ * as the in-memory transaction manager, JDBC transactions and ScalarDB Cluster, are rejected.
+ */
+public class ConcurrentOperations {
+  private static final String CONSENSUS_COMMIT = "consensus-commit";
+
+  private final ExecutorService executor;
+
+  /**
+   * Constructs a {@code ConcurrentOperations} if the transaction manager accepts concurrent reads
+   * in a transaction.
+   *
+   * @param config a Kelpie {@code Config}
+   * @param option the name of the option that issues the reads concurrently
+   * @param threads the number of the threads, which should be the number of the clients multiplied
+   *     by the number of the reads that a client issues at once
+   */
+  public ConcurrentOperations(Config config, String option, int threads) {
+    DatabaseConfig dbConfig = Common.getDatabaseConfig(config);
+    if (InMemoryTransactionManager.STORAGE.equals(dbConfig.getStorage())
+        || !CONSENSUS_COMMIT.equals(dbConfig.getTransactionManager())) {
+      throw new RuntimeException(
+          option
+              + " requires the "
+              + CONSENSUS_COMMIT
+              + " transaction manager, which allows concurrent reads in a transaction");
+    }
+    this.executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+  }
+
+  /**
+   * Reads records in a transaction concurrently and waits for all of them.
+   *
+   * @param transaction a transaction
+   * @param gets the reads
+   * @return the results in the order of the reads
+   * @throws TransactionException if any of the reads fails
+   */
+  public List<Optional<Result>> getAll(DistributedTransaction transaction, List<Get> gets)
+      throws TransactionException {
+    if (gets.isEmpty()) {
+      return new ArrayList<>();
+    }
+    int last = gets.size() - 1;
+    List<Future<Optional<Result>>> futures = new ArrayList<>(last);
+    for (int i = 0; i < last; i++) {
+      Get get = gets.get(i);
+      futures.add(executor.submit(() -> transaction.get(get)));
+    }
+
+    // all the reads are awaited even if one of them fails so that none of them is still running
+    // when the transaction is aborted
+    List<Optional<Result>> results = new ArrayList<>(gets.size());
+    Optional<Result> lastResult = null;
+    Throwable failure = null;
+    try {
+      lastResult = transaction.get(gets.get(last));
+    } catch (TransactionException | RuntimeException e) {
+      failure = e;
+    }
+    for (Future<Optional<Result>> future : futures) {
+      try {
+        results.add(future.get());
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException(e);
+      }
+    }
+    if (failure instanceof TransactionException) {
+      throw (TransactionException) failure;
+    }
+    if (failure != null) {
+      throw new RuntimeException(failure);
+    }
+    results.add(lastResult);
+    return results;
+  }
+
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,1009 @@
+package com.scalar.db.benchmarks;
+
+import com.scalar.db.api.Delete;
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Insert;
+import com.scalar.db.api.Isolation;
+import com.scalar.db.api.Mutation;
+import com.scalar.db.api.Operation;
+import com.scalar.db.api.Put;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.SerializableStrategy;
+import com.scalar.db.api.TableMetadata;
+import com.scalar.db.api.TransactionCrudOperable;
+import com.scalar.db.api.TransactionManagerCrudOperable;
+import com.scalar.db.api.TransactionState;
+import com.scalar.db.api.Update;
+import com.scalar.db.api.Upsert;
+import com.scalar.db.exception.transaction.TransactionNotFoundException;
+import com.scalar.db.io.BigIntColumn;
+import com.scalar.db.io.BigIntValue;
+import com.scalar.db.io.BlobColumn;
+import com.scalar.db.io.BlobValue;
+import com.scalar.db.io.BooleanColumn;
+import com.scalar.db.io.BooleanValue;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.DataType;
+import com.scalar.db.io.DoubleColumn;
+import com.scalar.db.io.DoubleValue;
+import com.scalar.db.io.FloatColumn;
+import com.scalar.db.io.FloatValue;
+import com.scalar.db.io.IntColumn;
+import com.scalar.db.io.IntValue;
+import com.scalar.db.io.Key;
+import com.scalar.db.io.TextColumn;
+import com.scalar.db.io.TextValue;
+import com.scalar.db.io.Value;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import javax.annotation.Nullable;
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * A {@code DistributedTransactionManager} that keeps all the records in the memory of the
+ * benchmark process. It is selected with {@code storage = "memory"} in {@code database_config} and
+ * is used to measure the throughput the benchmark client itself can drive, which is the ceiling of
+ * any run against a real database.
+ *
+ * <p>The tables are created from a schema file in the format of the Schema Loader, which is given
+ * with {@code schema_file} in {@code database_config}, so a result has all the columns of its
+ * table, or the projected ones, as in ScalarDB. The secondary indexes of the schema are updated on
+ * every write.
+ *
+ * <p>Writes are buffered in a transaction and applied on commit without any conflict detection, so
+ * transactions never abort. Reads in a transaction see its own buffered writes for {@code Get}, but
+ * {@code Scan} only sees committed records. A transaction must not be used by multiple threads at
+ * the same time.
+ */
+public final class InMemoryTransactionManager implements DistributedTransactionManager {
+  public static final String STORAGE = "memory";
+
+  // shared by all the managers so that a loader and a benchmark in the same process see the same
+  // records
+  private static final ConcurrentMap<String, Table> TABLES = new ConcurrentHashMap<>();
+
+  @Nullable private volatile String namespace;
+  @Nullable private volatile String tableName;
+
+  /**
+   * Constructs a {@code InMemoryTransactionManager} with the tables defined in a schema file. The
+   * tables that already exist in the process are reused.
+   *
+   * @param schemaFile the path of a schema file in the format of the Schema Loader
+   */
+  public InMemoryTransactionManager(String schemaFile) {
+    JsonObject schema;
+    try (Reader file = Files.newBufferedReader(Paths.get(schemaFile), StandardCharsets.UTF_8);
+        JsonReader reader = Json.createReader(file)) {
+      schema = reader.readObject();
+    } catch (IOException | JsonException e) {
+      throw new RuntimeException("failed to load the schema file: " + schemaFile, e);
+    }
+    for (Map.Entry<String, JsonValue> entry : schema.entrySet()) {
+      TableMetadata metadata = toTableMetadata((JsonObject) entry.getValue());
+      TABLES.computeIfAbsent(entry.getKey(), n -> new Table(metadata));
+    }
+  }
+
+  private static TableMetadata toTableMetadata(JsonObject table) {
+    TableMetadata.Builder builder = TableMetadata.newBuilder();
+    for (Map.Entry<String, JsonValue> column : table.getJsonObject("columns").entrySet()) {
+      String type = ((JsonString) column.getValue()).getString();
+      builder.addColumn(column.getKey(), DataType.valueOf(type.toUpperCase()));
+    }
+    for (JsonString key : table.getJsonArray("partition-key").getValuesAs(JsonString.class)) {
+      builder.addPartitionKey(key.getString());
+    }
+    if (table.containsKey("clustering-key")) {
+      for (JsonString key : table.getJsonArray("clustering-key").getValuesAs(JsonString.class)) {
+        // a clustering key can be followed by its order, such as "c_id ASC"
+        String[] nameAndOrder = key.getString().trim().split("\\s+");
+        Scan.Ordering.Order order =
+            nameAndOrder.length > 1
+                ? Scan.Ordering.Order.valueOf(nameAndOrder[1].toUpperCase())
+                : Scan.Ordering.Order.ASC;
+        builder.addClusteringKey(nameAndOrder[0], order);
+      }
+    }
+    if (table.containsKey("secondary-index")) {
+      for (JsonString index : table.getJsonArray("secondary-index").getValuesAs(JsonString.class)) {
+        builder.addSecondaryIndex(index.getString());
+      }
+    }
+    return builder.build();
+  }
+
+  private static List<Column<?>> toClusteringKey(Optional<Key> key) {
+    return key.isPresent() ? key.get().getColumns() : Collections.emptyList();
+  }
+
+  private InMemoryTransaction newTransaction(String id) {
+    return new InMemoryTransaction(id, namespace, tableName);
+  }
+
+  /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+  @Deprecated
+  @Override
+  public void with(String namespace, String tableName) {
+    this.namespace = namespace;
+    this.tableName = tableName;
+  }
+
+  /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+  @Deprecated
+  @Override
+  public void withNamespace(String namespace) {
+    this.namespace = namespace;
+  }
+
+  /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+  @Deprecated
+  @Override
+  public Optional<String> getNamespace() {
+    return Optional.ofNullable(namespace);
+  }
+
+  /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+  @Deprecated
+  @Override
+  public void withTable(String tableName) {
+    this.tableName = tableName;
+  }
+
+  /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+  @Deprecated
+  @Override
+  public Optional<String> getTable() {
+    return Optional.ofNullable(tableName);
+  }
+
+  @Override
+  public DistributedTransaction begin() {
+    return newTransaction(UUID.randomUUID().toString());
+  }
+
+  @Override
+  public DistributedTransaction begin(String txId) {
+    return newTransaction(txId);
+  }
+
+  @Override
+  public DistributedTransaction start() {
+    return begin();
+  }
+
+  @Override
+  public DistributedTransaction start(String txId) {
+    return begin(txId);
+  }
+
+  /** @deprecated As of release 2.4.0. Will be removed in release 4.0.0. */
+  @Deprecated
+  @Override
+  public DistributedTransaction start(Isolation isolation) {
+    return begin();
+  }
+
+  /** @deprecated As of release 2.4.0. Will be removed in release 4.0.0. */
+  @Deprecated
+  @Override
+  public DistributedTransaction start(String txId, Isolation isolation) {
+    return begin(txId);
+  }
+
+  /** @deprecated As of release 2.4.0. Will be removed in release 4.0.0. */
+  @Deprecated
+  @Override
+  public DistributedTransaction start(Isolation isolation, SerializableStrategy strategy) {
+    return begin();
+  }
+
+  /** @deprecated As of release 2.4.0. Will be removed in release 4.0.0. */
+  @Deprecated
+  @Override
+  public DistributedTransaction start(SerializableStrategy strategy) {
+    return begin();
+  }
+
+  /** @deprecated As of release 2.4.0. Will be removed in release 4.0.0. */
+  @Deprecated
+  @Override
+  public DistributedTransaction start(String txId, SerializableStrategy strategy) {
+    return begin(txId);
+  }
+
+  /** @deprecated As of release 2.4.0. Will be removed in release 4.0.0. */
+  @Deprecated
+  @Override
+  public DistributedTransaction start(
+      String txId, Isolation isolation, SerializableStrategy strategy) {
+    return begin(txId);
+  }
+
+  @Override
+  public DistributedTransaction resume(String txId) throws TransactionNotFoundException {
+    // the transactions are not tracked to keep the overhead of the manager low
+    throw new TransactionNotFoundException(
+        "the " + STORAGE + " storage can't resume a transaction", txId);
+  }
+
+  @Override
+  public TransactionState getState(String txId) {
+    return TransactionState.UNKNOWN;
+  }
+
+  @Override
+  public TransactionState rollback(String txId) {
+    return TransactionState.UNKNOWN;
+  }
+
+  // a one-shot operation of the manager is executed in its own transaction
+
+  @Override
+  public Optional<Result> get(Get get) {
+    InMemoryTransaction transaction = newTransaction(UUID.randomUUID().toString());
+    Optional<Result> result = transaction.get(get);
+    transaction.commit();
+    return result;
+  }
+
+  @Override
+  public List<Result> scan(Scan scan) {
+    InMemoryTransaction transaction = newTransaction(UUID.randomUUID().toString());
+    List<Result> results = transaction.scan(scan);
+    transaction.commit();
+    return results;
+  }
+
+  @Override
+  public TransactionManagerCrudOperable.Scanner getScanner(Scan scan) {
+    return new ListScanner(scan(scan));
+  }
+
+  /** @deprecated As of release 3.13.0. Will be removed in release 5.0.0. */
+  @Deprecated
+  @Override
+  public void put(Put put) {
+    mutate(Collections.singletonList(put));
+  }
+
+  /** @deprecated As of release 3.13.0. Will be removed in release 5.0.0. */
+  @Deprecated
+  @Override
+  public void put(List<Put> puts) {
+    mutate(puts);
+  }
+
+  @Override
+  public void insert(Insert insert) {
+    mutate(Collections.singletonList(insert));
+  }
+
+  @Override
+  public void upsert(Upsert upsert) {
+    mutate(Collections.singletonList(upsert));
+  }
+
+  @Override
+  public void update(Update update) {
+    mutate(Collections.singletonList(update));
+  }
+
+  @Override
+  public void delete(Delete delete) {
+    mutate(Collections.singletonList(delete));
+  }
+
+  /** @deprecated As of release 3.13.0. Will be removed in release 5.0.0. */
+  @Deprecated
+  @Override
+  public void delete(List<Delete> deletes) {
+    mutate(deletes);
+  }
+
+  @Override
+  public void mutate(List<? extends Mutation> mutations) {
+    InMemoryTransaction transaction = newTransaction(UUID.randomUUID().toString());
+    transaction.mutate(mutations);
+    transaction.commit();
+  }
+
+  @Override
+  public void close() {}
+
+  private static class InMemoryTransaction implements DistributedTransaction {
+    private final String id;
+    private final Map<RowId, Map<String, Column<?>>> writeSet = new LinkedHashMap<>();
+    @Nullable private String namespace;
+    @Nullable private String tableName;
+
+    InMemoryTransaction(String id, @Nullable String namespace, @Nullable String tableName) {
+      this.id = id;
+      this.namespace = namespace;
+      this.tableName = tableName;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public void with(String namespace, String tableName) {
+      this.namespace = namespace;
+      this.tableName = tableName;
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public void withNamespace(String namespace) {
+      this.namespace = namespace;
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public Optional<String> getNamespace() {
+      return Optional.ofNullable(namespace);
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public void withTable(String tableName) {
+      this.tableName = tableName;
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public Optional<String> getTable() {
+      return Optional.ofNullable(tableName);
+    }
+
+    private RowId toRowId(Operation operation) {
+      String namespace = operation.forNamespace().orElse(this.namespace);
+      String tableName = operation.forTable().orElse(this.tableName);
+      if (namespace == null || tableName == null) {
+        throw new IllegalArgumentException("the namespace or the table is not specified");
+      }
+      Table table = TABLES.get(namespace + "." + tableName);
+      if (table == null) {
+        throw new IllegalArgumentException(
+            "the table " + namespace + "." + tableName + " is not in the schema file");
+      }
+      return new RowId(
+          table, operation.getPartitionKey(), toClusteringKey(operation.getClusteringKey()));
+    }
+
+    @Override
+    public Optional<Result> get(Get get) {
+      RowId rowId = toRowId(get);
+      if (rowId.table.isIndexKey(rowId.partitionKey)) {
+        List<Result> results = rowId.table.scanIndex(rowId.partitionKey, get.getProjections(), 1);
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+      }
+
+      Map<String, Column<?>> row = rowId.table.read(rowId);
+      if (writeSet.containsKey(rowId)) {
+        Map<String, Column<?>> columns = writeSet.get(rowId);
+        if (columns == null) {
+          return Optional.empty();
+        }
+        Map<String, Column<?>> merged = row == null ? new HashMap<>() : new HashMap<>(row);
+        merged.putAll(columns);
+        row = merged;
+      }
+      return row == null
+          ? Optional.empty()
+          : Optional.of(new InMemoryResult(rowId.table, row, get.getProjections()));
+    }
+
+    @Override
+    public List<Result> scan(Scan scan) {
+      RowId rowId = toRowId(scan);
+      if (rowId.table.isIndexKey(rowId.partitionKey)) {
+        return rowId.table.scanIndex(rowId.partitionKey, scan.getProjections(), scan.getLimit());
+      }
+      return rowId.table.scan(scan);
+    }
+
+    @Override
+    public TransactionCrudOperable.Scanner getScanner(Scan scan) {
+      return new ListScanner(scan(scan));
+    }
+
+    /** @deprecated As of release 3.13.0. Will be removed in release 5.0.0. */
+    @Deprecated
+    @Override
+    public void put(Put put) {
+      write(toRowId(put), put.getColumns());
+    }
+
+    /** @deprecated As of release 3.13.0. Will be removed in release 5.0.0. */
+    @Deprecated
+    @Override
+    public void put(List<Put> puts) {
+      mutate(puts);
+    }
+
+    @Override
+    public void insert(Insert insert) {
+      write(toRowId(insert), insert.getColumns());
+    }
+
+    @Override
+    public void upsert(Upsert upsert) {
+      write(toRowId(upsert), upsert.getColumns());
+    }
+
+    @Override
+    public void update(Update update) {
+      // an update of a record that doesn't exist does nothing
+      RowId rowId = toRowId(update);
+      boolean exists =
+          writeSet.containsKey(rowId)
+              ? writeSet.get(rowId) != null
+              : rowId.table.read(rowId) != null;
+      if (exists) {
+        write(rowId, update.getColumns());
+      }
+    }
+
+    @Override
+    public void delete(Delete delete) {
+      writeSet.put(toRowId(delete), null);
+    }
+
+    /** @deprecated As of release 3.13.0. Will be removed in release 5.0.0. */
+    @Deprecated
+    @Override
+    public void delete(List<Delete> deletes) {
+      mutate(deletes);
+    }
+
+    @Override
+    public void mutate(List<? extends Mutation> mutations) {
+      for (Mutation mutation : mutations) {
+        if (mutation instanceof Put) {
+          put((Put) mutation);
+        } else if (mutation instanceof Insert) {
+          insert((Insert) mutation);
+        } else if (mutation instanceof Upsert) {
+          upsert((Upsert) mutation);
+        } else if (mutation instanceof Update) {
+          update((Update) mutation);
+        } else if (mutation instanceof Delete) {
+          delete((Delete) mutation);
+        } else {
+          throw new IllegalArgumentException(
+              "unknown mutation: " + mutation.getClass().getSimpleName());
+        }
+      }
+    }
+
+    private void write(RowId rowId, Map<String, Column<?>> columns) {
+      Map<String, Column<?>> buffered = writeSet.get(rowId);
+      if (buffered == null) {
+        buffered = new HashMap<>();
+        for (Column<?> column : rowId.partitionKey.getColumns()) {
+          buffered.put(column.getName(), column);
+        }
+        for (Column<?> column : rowId.clusteringKey) {
+          buffered.put(column.getName(), column);
+        }
+        // a write after a delete of the same record recreates it
+        writeSet.put(rowId, buffered);
+      }
+      buffered.putAll(columns);
+    }
+
+    @Override
+    public void commit() {
+      writeSet.forEach((rowId, columns) -> rowId.table.write(rowId, columns));
+      writeSet.clear();
+    }
+
+    @Override
+    public void rollback() {
+      writeSet.clear();
+    }
+
+    @Override
+    public void abort() {
+      rollback();
+    }
+  }
+
+  /** A scanner over the results that have already been read. */
+  private static class ListScanner
+      implements TransactionCrudOperable.Scanner, TransactionManagerCrudOperable.Scanner {
+    private final Iterator<Result> results;
+
+    ListScanner(List<Result> results) {
+      this.results = results.iterator();
+    }
+
+    @Override
+    public Optional<Result> one() {
+      return results.hasNext() ? Optional.of(results.next()) : Optional.empty();
+    }
+
+    @Override
+    public List<Result> all() {
+      List<Result> rest = new ArrayList<>();
+      results.forEachRemaining(rest::add);
+      return rest;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public Iterator<Result> iterator() {
+      return results;
+    }
+  }
+
+  /** Identifies a record in a table. */
+  private static final class RowId {
+    private final Table table;
+    private final Key partitionKey;
+    private final List<Column<?>> clusteringKey;
+
+    RowId(Table table, Key partitionKey, List<Column<?>> clusteringKey) {
+      this.table = table;
+      this.partitionKey = partitionKey;
+      this.clusteringKey = clusteringKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof RowId)) {
+        return false;
+      }
+      RowId other = (RowId) o;
+      return table == other.table
+          && partitionKey.equals(other.partitionKey)
+          && clusteringKey.equals(other.clusteringKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(table), partitionKey, clusteringKey);
+    }
+  }
+
+  private static class Table {
+    private final TableMetadata metadata;
+    private final Map<String, Column<?>> nullColumns = new HashMap<>();
+    private final boolean[] descending; // for each clustering key
+    private final ConcurrentMap<
+            Key, ConcurrentNavigableMap<List<Column<?>>, Map<String, Column<?>>>>
+        partitions = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentMap<Column<?>, Set<RowId>>> indexes = new HashMap<>();
+
+    Table(TableMetadata metadata) {
+      this.metadata = metadata;
+      for (String name : metadata.getColumnNames()) {
+        nullColumns.put(name, toNullColumn(name, metadata.getColumnDataType(name)));
+      }
+      descending = new boolean[metadata.getClusteringKeyNames().size()];
+      int i = 0;
+      for (String name : metadata.getClusteringKeyNames()) {
+        descending[i++] = metadata.getClusteringOrder(name) == Scan.Ordering.Order.DESC;
+      }
+      for (String name : metadata.getSecondaryIndexNames()) {
+        indexes.put(name, new ConcurrentHashMap<>());
+      }
+    }
+
+    private static Column<?> toNullColumn(String name, DataType type) {
+      switch (type) {
+        case BOOLEAN:
+          return BooleanColumn.ofNull(name);
+        case INT:
+          return IntColumn.ofNull(name);
+        case BIGINT:
+          return BigIntColumn.ofNull(name);
+        case FLOAT:
+          return FloatColumn.ofNull(name);
+        case DOUBLE:
+          return DoubleColumn.ofNull(name);
+        case TEXT:
+          return TextColumn.ofNull(name);
+        case BLOB:
+          return BlobColumn.ofNull(name);
+        default:
+          throw new RuntimeException(
+              "the " + STORAGE + " storage doesn't support the " + type + " type");
+      }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int compareClusteringKeys(List<Column<?>> a, List<Column<?>> b, boolean prefix) {
+      int size = Math.min(a.size(), b.size());
+      for (int i = 0; i < size; i++) {
+        int c = ((Comparable) a.get(i)).compareTo(b.get(i));
+        if (c != 0) {
+          return descending[i] ? -c : c;
+        }
+      }
+      return prefix ? 0 : Integer.compare(a.size(), b.size());
+    }
+
+    boolean isIndexKey(Key key) {
+      List<Column<?>> columns = key.getColumns();
+      Set<String> names = metadata.getPartitionKeyNames();
+      if (columns.size() == names.size()) {
+        Iterator<String> name = names.iterator();
+        boolean partitionKey = true;
+        for (Column<?> column : columns) {
+          partitionKey &= column.getName().equals(name.next());
+        }
+        if (partitionKey) {
+          return false;
+        }
+      }
+      if (columns.size() == 1 && indexes.containsKey(columns.get(0).getName())) {
+        return true;
+      }
+      throw new IllegalArgumentException(
+          "the key is neither the partition key nor a secondary index: " + key);
+    }
+
+    @Nullable
+    Map<String, Column<?>> read(RowId rowId) {
+      Map<List<Column<?>>, Map<String, Column<?>>> partition = partitions.get(rowId.partitionKey);
+      return partition == null ? null : partition.get(rowId.clusteringKey);
+    }
+
+    void write(RowId rowId, @Nullable Map<String, Column<?>> columns) {
+      ConcurrentNavigableMap<List<Column<?>>, Map<String, Column<?>>> partition =
+          partitions.computeIfAbsent(
+              rowId.partitionKey,
+              k -> new ConcurrentSkipListMap<>((a, b) -> compareClusteringKeys(a, b, false)));
+      while (true) {
+        Map<String, Column<?>> old = partition.get(rowId.clusteringKey);
+        if (columns == null) {
+          if (old == null || partition.remove(rowId.clusteringKey, old)) {
+            updateIndexes(rowId, old, null);
+            return;
+          }
+          continue;
+        }
+
+        if (old == null) {
+          Map<String, Column<?>> row = Collections.unmodifiableMap(new HashMap<>(columns));
+          if (partition.putIfAbsent(rowId.clusteringKey, row) == null) {
+            updateIndexes(rowId, null, row);
+            return;
+          }
+        } else {
+          Map<String, Column<?>> merged = new HashMap<>(old);
+          merged.putAll(columns);
+          Map<String, Column<?>> row = Collections.unmodifiableMap(merged);
+          if (partition.replace(rowId.clusteringKey, old, row)) {
+            updateIndexes(rowId, old, row);
+            return;
+          }
+        }
+      }
+    }
+
+    private void updateIndexes(
+        RowId rowId, @Nullable Map<String, Column<?>> old, @Nullable Map<String, Column<?>> row) {
+      indexes.forEach(
+          (name, index) -> {
+            Column<?> oldValue = old == null ? null : old.get(name);
+            Column<?> newValue = row == null ? null : row.get(name);
+            if (Objects.equals(oldValue, newValue)) {
+              return;
+            }
+            if (oldValue != null) {
+              Set<RowId> rowIds = index.get(oldValue);
+              if (rowIds != null) {
+                rowIds.remove(rowId);
+              }
+            }
+            if (newValue != null) {
+              index.computeIfAbsent(newValue, v -> ConcurrentHashMap.newKeySet()).add(rowId);
+            }
+          });
+    }
+
+    List<Result> scanIndex(Key key, List<String> projections, int limit) {
+      Column<?> value = key.getColumns().get(0);
+      Set<RowId> rowIds = indexes.get(value.getName()).get(value);
+      if (rowIds == null) {
+        return Collections.emptyList();
+      }
+
+      List<Result> results = new ArrayList<>();
+      for (RowId rowId : rowIds) {
+        Map<String, Column<?>> row = read(rowId);
+        // the index may briefly have an entry of a record being updated
+        if (row != null && value.equals(row.get(value.getName()))) {
+          results.add(new InMemoryResult(this, row, projections));
+          if (limit > 0 && results.size() >= limit) {
+            break;
+          }
+        }
+      }
+      return results;
+    }
+
+    List<Result> scan(Scan scan) {
+      ConcurrentNavigableMap<List<Column<?>>, Map<String, Column<?>>> partition =
+          partitions.get(scan.getPartitionKey());
+      if (partition == null) {
+        return Collections.emptyList();
+      }
+
+      List<Column<?>> start = toClusteringKey(scan.getStartClusteringKey());
+      List<Column<?>> end = toClusteringKey(scan.getEndClusteringKey());
+      // the records are scanned in the clustering order and reversed if the other order is asked
+      boolean reverse =
+          !scan.getOrderings().isEmpty()
+              && descending.length > 0
+              && (scan.getOrderings().get(0).getOrder() == Scan.Ordering.Order.DESC)
+                  != descending[0];
+      int limit = scan.getLimit();
+
+      List<Result> results = new ArrayList<>();
+      Map<List<Column<?>>, Map<String, Column<?>>> range =
+          start.isEmpty() ? partition : partition.tailMap(start, true);
+      for (Map.Entry<List<Column<?>>, Map<String, Column<?>>> entry : range.entrySet()) {
+        List<Column<?>> clusteringKey = entry.getKey();
+        if (!start.isEmpty()
+            && !scan.getStartInclusive()
+            && compareClusteringKeys(clusteringKey, start, true) == 0) {
+          continue;
+        }
+        if (!end.isEmpty()) {
+          int c = compareClusteringKeys(clusteringKey, end, true);
+          if (c > 0 || (c == 0 && !scan.getEndInclusive())) {
+            break;
+          }
+        }
+        results.add(new InMemoryResult(this, entry.getValue(), scan.getProjections()));
+        if (!reverse && limit > 0 && results.size() >= limit) {
+          break;
+        }
+      }
+
+      if (reverse) {
+        Collections.reverse(results);
+        if (limit > 0 && results.size() > limit) {
+          return new ArrayList<>(results.subList(0, limit));
+        }
+      }
+      return results;
+    }
+  }
+
+  /**
+   * A result of a record. The columns that were never written are returned as null columns, and
+   * only the projected columns are returned if any column is projected.
+   */
+  private static class InMemoryResult implements Result {
+    private final Table table;
+    private final Map<String, Column<?>> row;
+    private final Set<String> columnNames;
+
+    InMemoryResult(Table table, Map<String, Column<?>> row, List<String> projections) {
+      this.table = table;
+      this.row = row;
+      this.columnNames =
+          projections.isEmpty()
+              ? table.metadata.getColumnNames()
+              : Collections.unmodifiableSet(new LinkedHashSet<>(projections));
+    }
+
+    private Column<?> getColumn(String columnName) {
+      if (!columnNames.contains(columnName)) {
+        throw new IllegalArgumentException(columnName + " is not in the result");
+      }
+      Column<?> column = row.get(columnName);
+      return column != null ? column : table.nullColumns.get(columnName);
+    }
+
+    private static Value<?> toValue(Column<?> column) {
+      String name = column.getName();
+      switch (column.getDataType()) {
+        case BOOLEAN:
+          return new BooleanValue(name, column.getBooleanValue());
+        case INT:
+          return new IntValue(name, column.getIntValue());
+        case BIGINT:
+          return new BigIntValue(name, column.getBigIntValue());
+        case FLOAT:
+          return new FloatValue(name, column.getFloatValue());
+        case DOUBLE:
+          return new DoubleValue(name, column.getDoubleValue());
+        case TEXT:
+          return new TextValue(name, column.getTextValue());
+        case BLOB:
+          return new BlobValue(name, column.getBlobValueAsBytes());
+        default:
+          throw new UnsupportedOperationException(
+              column.getDataType() + " is not supported by the Value API");
+      }
+    }
+
+    private Optional<Key> toKey(Set<String> keyNames) {
+      if (keyNames.isEmpty() || !columnNames.containsAll(keyNames)) {
+        return Optional.empty();
+      }
+      List<Value<?>> values = new ArrayList<>(keyNames.size());
+      keyNames.forEach(name -> values.add(toValue(getColumn(name))));
+      return Optional.of(new Key(values));
+    }
+
+    /** @deprecated As of release 3.8.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public Optional<Key> getPartitionKey() {
+      return toKey(table.metadata.getPartitionKeyNames());
+    }
+
+    /** @deprecated As of release 3.8.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public Optional<Key> getClusteringKey() {
+      return toKey(table.metadata.getClusteringKeyNames());
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public Optional<Value<?>> getValue(String columnName) {
+      return columnNames.contains(columnName)
+          ? Optional.of(toValue(getColumn(columnName)))
+          : Optional.empty();
+    }
+
+    /** @deprecated As of release 3.6.0. Will be removed in release 5.0.0 */
+    @Deprecated
+    @Override
+    public Map<String, Value<?>> getValues() {
+      Map<String, Value<?>> values = new LinkedHashMap<>();
+      columnNames.forEach(name -> values.put(name, toValue(getColumn(name))));
+      return values;
+    }
+
+    @Override
+    public boolean isNull(String columnName) {
+      return getColumn(columnName).hasNullValue();
+    }
+
+    @Override
+    public boolean getBoolean(String columnName) {
+      return getColumn(columnName).getBooleanValue();
+    }
+
+    @Override
+    public int getInt(String columnName) {
+      return getColumn(columnName).getIntValue();
+    }
+
+    @Override
+    public long getBigInt(String columnName) {
+      return getColumn(columnName).getBigIntValue();
+    }
+
+    @Override
+    public float getFloat(String columnName) {
+      return getColumn(columnName).getFloatValue();
+    }
+
+    @Override
+    public double getDouble(String columnName) {
+      return getColumn(columnName).getDoubleValue();
+    }
+
+    @Nullable
+    @Override
+    public String getText(String columnName) {
+      return getColumn(columnName).getTextValue();
+    }
+
+    @Nullable
+    @Override
+    public ByteBuffer getBlobAsByteBuffer(String columnName) {
+      return getColumn(columnName).getBlobValueAsByteBuffer();
+    }
+
+    @Nullable
+    @Override
+    public byte[] getBlobAsBytes(String columnName) {
+      return getColumn(columnName).getBlobValueAsBytes();
+    }
+
+    @Nullable
+    @Override
+    public LocalDate getDate(String columnName) {
+      return getColumn(columnName).getDateValue();
+    }
+
+    @Nullable
+    @Override
+    public LocalTime getTime(String columnName) {
+      return getColumn(columnName).getTimeValue();
+    }
+
+    @Nullable
+    @Override
+    public LocalDateTime getTimestamp(String columnName) {
+      return getColumn(columnName).getTimestampValue();
+    }
+
+    @Nullable
+    @Override
+    public Instant getTimestampTZ(String columnName) {
+      return getColumn(columnName).getTimestampTZValue();
+    }
+
+    @Nullable
+    @Override
+    public Object getAsObject(String columnName) {
+      return getColumn(columnName).getValueAsObject();
+    }
+
+    @Override
+    public boolean contains(String columnName) {
+      return columnNames.contains(columnName);
+    }
+
+    @Override
+    public Set<String> getContainedColumnNames() {
+      return columnNames;
+    }
+
+    @Override
+    public Map<String, Column<?>> getColumns() {
+      Map<String, Column<?>> columns = new LinkedHashMap<>();
+      columnNames.forEach(name -> columns.put(name, getColumn(name)));
+      return columns;
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package com.scalar.db.benchmarks;
+
+import com.scalar.kelpie.config.Config;
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.json.Json;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records the latency of each operation type in an HdrHistogram {@code Recorder}, which processor
+ * threads can write to without locking. A latency is measured from the intended start time of an
+ * operation, which already includes the queueing delay in an open-loop run. In a closed-loop run,
+ * if {@code expected_interval_micros} is specified in {@code latency_config}, a latency is also
+ * corrected for coordinated omission by back-filling the samples that a stalled operation
+ * prevented from being issued. The correction is rejected in an open-loop run, where it would
+ * count the delay twice.
+ *
+ * <p>The operations started in the ramp-up period of Kelpie are not recorded. On {@link
+ * #close(JsonObjectBuilder)}, the recorded histograms are written to an .hlog file and their
+ * percentiles are added to the state of the processor for the reporter.
+ */
+public class LatencyRecorder {
+  public static final String STATE_NAME = "latency";
+  private static final String CONFIG_NAME = "latency_config";
+  private static final String HISTOGRAM_LOG = "histogram_log";
+  private static final String EXPECTED_INTERVAL_MICROS = "expected_interval_micros";
+  private static final String DEFAULT_HISTOGRAM_LOG = "latency.hlog";
+  private static final long DEFAULT_EXPECTED_INTERVAL_MICROS = 0;
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+  private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9", "p99.99"};
+
+  private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+  private final String histogramLog;
+  private final long expectedIntervalMicros;
+  private final long rampNanos;
+  private final long runNanos;
+  private final AtomicLong recordFromNanos = new AtomicLong();
+  private volatile long startTimeMillis;
+
+  /**
+   * Constructs a {@code LatencyRecorder}.
+   *
+   * @param config a Kelpie {@code Config}
+   */
+  public LatencyRecorder(Config config) {
+    this.histogramLog = config.getUserString(CONFIG_NAME, HISTOGRAM_LOG, DEFAULT_HISTOGRAM_LOG);
+    this.expectedIntervalMicros =
+        config.getUserLong(
+            CONFIG_NAME, EXPECTED_INTERVAL_MICROS, DEFAULT_EXPECTED_INTERVAL_MICROS);
+    if (expectedIntervalMicros < 0) {
+      throw new RuntimeException(EXPECTED_INTERVAL_MICROS + " must not be negative");
+    }
+    if (expectedIntervalMicros > 0 && ArrivalSchedule.getTargetOpsPerSec(config) > 0) {
+      throw new RuntimeException(
+          EXPECTED_INTERVAL_MICROS
+              + " can't be specified with "
+              + ArrivalSchedule.TARGET_OPS_PER_SEC
+              + " since the latencies are already measured from the intended start times");
+    }
+    this.rampNanos = TimeUnit.SECONDS.toNanos(config.getRampForSec());
+    this.runNanos = TimeUnit.SECONDS.toNanos(config.getRunForSec());
+  }
+
+  /**
+   * Records the latency of an operation that has just finished.
+   *
+   * @param operation a name of the operation type
+   * @param intendedStartNanos the {@code System.nanoTime()} at which the operation was intended to
+   *     start
+   */
+  public void record(String operation, long intendedStartNanos) {
+    long now = System.nanoTime();
+    if (isInRampUp(intendedStartNanos)) {
+      return;
+    }
+
+    Recorder recorder = recorders.get(operation);
+    if (recorder == null) {
+      recorder = recorders.computeIfAbsent(operation, o -> new Recorder(SIGNIFICANT_DIGITS));
+    }
+    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(now - intendedStartNanos);
+    if (expectedIntervalMicros > 0) {
+      recorder.recordValueWithExpectedInterval(latencyMicros, expectedIntervalMicros);
+    } else {
+      recorder.recordValue(latencyMicros);
+    }
+  }
+
+  /**
+   * Returns whether or not an operation started in the ramp-up period. The ramp-up period starts
+   * with the first operation.
+   *
+   * @param startNanos the {@code System.nanoTime()} at which the operation started
+   * @return true if the operation is not measured
+   */
+  public boolean isInRampUp(long startNanos) {
+    long recordFrom = recordFromNanos.get();
+    if (recordFrom == 0) {
+      if (recordFromNanos.compareAndSet(0, startNanos + rampNanos)) {
+        long rampLeftNanos = rampNanos - (System.nanoTime() - startNanos);
+        startTimeMillis = System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(rampLeftNanos);
+      }
+      recordFrom = recordFromNanos.get();
+    }
+    return startNanos - recordFrom < 0;
+  }
+
+  /**
+   * Returns whether or not an operation started after the measurement period, which ends the run
+   * duration after the ramp-up period.
+   *
+   * @param startNanos the {@code System.nanoTime()} at which the operation started
+   * @return true if the measurement period has ended before the operation
+   */
+  public boolean isAfterRun(long startNanos) {
+    long recordFrom = recordFromNanos.get();
+    return recordFrom != 0 && startNanos - (recordFrom + runNanos) > 0;
+  }
+
+  /**
+   * Writes the recorded histograms to the histogram log and adds their percentiles to the state.
+   *
+   * @param state a {@code JsonObjectBuilder} of the state of the processor
+   */
+  public void close(JsonObjectBuilder state) {
+    long endTimeMillis = System.currentTimeMillis();
+    Map<String, Histogram> histograms = new TreeMap<>();
+    recorders.forEach(
+        (operation, recorder) -> {
+          Histogram histogram = recorder.getIntervalHistogram();
+          histogram.setTag(operation);
+          histogram.setStartTimeStamp(startTimeMillis);
+          histogram.setEndTimeStamp(endTimeMillis);
+          histograms.put(operation, histogram);
+        });
+    if (histograms.isEmpty()) {
+      return;
+    }
+
+    writeHistogramLog(histograms);
+    JsonObjectBuilder latencies = Json.createObjectBuilder();
+    histograms.forEach(
+        (operation, histogram) -> {
+          JsonObjectBuilder latency =
+              Json.createObjectBuilder()
+                  .add("count", histogram.getTotalCount())
+                  .add("mean", histogram.getMean())
+                  .add("max", histogram.getMaxValue());
+          for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.add(PERCENTILE_NAMES[i], histogram.getValueAtPercentile(PERCENTILES[i]));
+          }
+          latencies.add(operation, latency);
+        });
+    state.add(STATE_NAME, latencies).add(HISTOGRAM_LOG, histogramLog);
+  }
+
+  private void writeHistogramLog(Map<String, Histogram> histograms) {
+    HistogramLogWriter writer;
+    try {
+      writer = new HistogramLogWriter(histogramLog);
+    } catch (FileNotFoundException e) {
+      throw new RuntimeException("failed to create the histogram log: " + histogramLog, e);
+    }
+    try {
+      writer.outputLogFormatVersion();
+      writer.outputStartTime(startTimeMillis);
+      writer.outputLegend();
+      histograms.values().forEach(writer::outputIntervalHistogram);
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * Creates a summary of the latencies in the state of a processor.
+   *
+   * @param state a {@code JsonObject} of the state of the processor
+   * @return a summary, or an empty {@code String} if no latency was recorded
+   */
+  public static String summarize(JsonObject state) {
+    if (state == null || !state.containsKey(STATE_NAME)) {
+      return "";
+    }
+
+    StringBuilder summary = new StringBuilder("==== Latency Details ====\n");
+    for (Map.Entry<String, JsonValue> entry : state.getJsonObject(STATE_NAME).entrySet()) {
+      JsonObject latency = (JsonObject) entry.getValue();
+      summary
+          .append(entry.getKey())
+          .append(": count=")
+          .append(latency.getJsonNumber("count").longValue())
+          .append(", mean=")
+          .append(toMillis(latency.getJsonNumber("mean")))
+          .append(" ms");
+      for (String name : PERCENTILE_NAMES) {
+        summary
+            .append(", ")
+            .append(name)
+            .append('=')
+            .append(toMillis(latency.getJsonNumber(name)))
+            .append(" ms");
+      }
+      summary.append(", max=").append(toMillis(latency.getJsonNumber("max"))).append(" ms\n");
+    }
+    summary.append("Histogram log: ").append(state.getString(HISTOGRAM_LOG)).append('\n');
+    return summary.toString();
+  }
+
+  private static String toMillis(JsonNumber micros) {
+    return String.format("%.3f", micros.doubleValue() / 1000.0);
+  }
+}
@@ -0,0 +1,238 @@
+package com.scalar.db.benchmarks;
+
+import com.scalar.kelpie.config.Config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the operations of a processor on logical clients. By default, each Kelpie thread is a
+ * client that executes one operation per {@code executeEach()}. If {@code logical_clients} is
+ * specified in {@code client_config}, the first call of {@code executeEach()} instead starts that
+ * many clients on virtual threads, which run operations until the ramp-up and measurement periods
+ * end, and the other Kelpie threads wait for them. This requires Java 21 or later at runtime, and
+ * {@code concurrency} in {@code common} should be 1. {@code max_in_flight} caps the number of
+ * operations that run at the same time. Since the Kelpie statistics count a whole run as one
+ * operation in this mode, the numbers of the operations are added to the state instead.
+ */
+public class LogicalClients {
+  private static final Logger LOGGER = LoggerFactory.getLogger(LogicalClients.class);
+  private static final String CONFIG_NAME = "client_config";
+  private static final String LOGICAL_CLIENTS = "logical_clients";
+  private static final String MAX_IN_FLIGHT = "max_in_flight";
+  private static final long DEFAULT_LOGICAL_CLIENTS = 0; // Kelpie threads are the clients
+  private static final long DEFAULT_MAX_IN_FLIGHT = 0; // unlimited
+  public static final String STATE_NAME = "logical_clients";
+
+  /** An operation of a processor. */
+  @FunctionalInterface
+  public interface Operation {
+    /**
+     * Executes the operation.
+     *
+     * @param intendedStartNanos the {@code System.nanoTime()} at which the operation was intended
+     *     to start
+     * @throws Exception if the operation fails
+     */
+    void execute(long intendedStartNanos) throws Exception;
+  }
+
+  private final ArrivalSchedule arrivalSchedule;
+  private final int clientCount;
+  private final int maxInFlight;
+  private final Semaphore inFlight; // null if unlimited
+  private final long rampNanos;
+  private final long runNanos;
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final CountDownLatch finished = new CountDownLatch(1);
+  private final LongAdder succeeded = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  /**
+   * Constructs a {@code LogicalClients}.
+   *
+   * @param config a Kelpie {@code Config}
+   * @param arrivalSchedule the schedule of the operations
+   */
+  public LogicalClients(Config config, ArrivalSchedule arrivalSchedule) {
+    this.arrivalSchedule = arrivalSchedule;
+    this.clientCount =
+        (int) config.getUserLong(CONFIG_NAME, LOGICAL_CLIENTS, DEFAULT_LOGICAL_CLIENTS);
+    this.maxInFlight = (int) config.getUserLong(CONFIG_NAME, MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT);
+    if (clientCount < 0) {
+      throw new RuntimeException(LOGICAL_CLIENTS + " must not be negative");
+    }
+    if (maxInFlight < 0) {
+      throw new RuntimeException(MAX_IN_FLIGHT + " must not be negative");
+    }
+    this.inFlight = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+    this.rampNanos = TimeUnit.SECONDS.toNanos(config.getRampForSec());
+    this.runNanos = TimeUnit.SECONDS.toNanos(config.getRunForSec());
+  }
+
+  /**
+   * Returns whether or not the operations run on logical clients.
+   *
+   * @return true if {@code logical_clients} is specified
+   */
+  public boolean isEnabled() {
+    return clientCount > 0;
+  }
+
+  /**
+   * Returns the number of clients that execute the operations.
+   *
+   * @param config a Kelpie {@code Config}
+   * @return the number of logical clients if they are used, or {@code concurrency} otherwise
+   */
+  public int getClientCount(Config config) {
+    return isEnabled() ? clientCount : (int) config.getConcurrency();
+  }
+
+  /**
+   * Executes an operation as a Kelpie thread, or runs the logical clients until the end of the
+   * measurement period.
+   *
+   * @param operation the operation of the processor
+   * @throws Exception if the operation fails when the logical clients are not used
+   */
+  public void execute(Operation operation) throws Exception {
+    if (!isEnabled()) {
+      operation.execute(arrivalSchedule.awaitNext());
+      return;
+    }
+
+    if (!started.compareAndSet(false, true)) {
+      finished.await();
+      return;
+    }
+    try {
+      runClients(operation);
+    } finally {
+      finished.countDown();
+    }
+  }
+
+  private void runClients(Operation operation) throws InterruptedException {
+    ThreadFactory threadFactory = virtualThreadFactory();
+    long measureFrom = System.nanoTime() + rampNanos;
+    long deadline = measureFrom + runNanos;
+    List<Thread> threads = new ArrayList<>(clientCount);
+    for (int i = 0; i < clientCount; i++) {
+      Thread thread = threadFactory.newThread(() -> runClient(operation, measureFrom, deadline));
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+  private void runClient(Operation operation, long measureFrom, long deadline) {
+    while (true) {
+      long start = arrivalSchedule.awaitNext();
+      if (start - deadline >= 0) {
+        return;
+      }
+      boolean measured = start - measureFrom >= 0;
+      try {
+        if (inFlight != null) {
+          inFlight.acquire();
+        }
+        try {
+          operation.execute(start);
+        } finally {
+          if (inFlight != null) {
+            inFlight.release();
+          }
+        }
+        if (measured) {
+          succeeded.increment();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        if (measured) {
+          failed.increment();
+        }
+        LOGGER.warn("An operation failed", e);
+      }
+    }
+  }
+
+  private static ThreadFactory virtualThreadFactory() {
+    // looked up reflectively since the sources are compiled for Java 8
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder =
+          builderClass
+              .getMethod("name", String.class, long.class)
+              .invoke(builder, "logical-client-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      throw new RuntimeException(LOGICAL_CLIENTS + " requires Java 21 or later", e);
+    }
+  }
+
+  /**
+   * Adds the numbers of the operations of the logical clients to the state if they are used.
+   *
+   * @param state a {@code JsonObjectBuilder} of the state of the processor
+   */
+  public void close(JsonObjectBuilder state) {
+    if (!isEnabled()) {
+      return;
+    }
+    state.add(
+        STATE_NAME,
+        Json.createObjectBuilder()
+            .add("clients", clientCount)
+            .add("max-in-flight", maxInFlight)
+            .add("succeeded", succeeded.sum())
+            .add("failed", failed.sum()));
+  }
+
+  /**
+   * Creates a summary of the operations of the logical clients in the state of a processor.
+   *
+   * @param state a {@code JsonObject} of the state of the processor
+   * @param runForSec the length of the measurement period
+   * @return a summary, or an empty {@code String} if the logical clients were not used
+   */
+  public static String summarize(JsonObject state, long runForSec) {
+    if (state == null || !state.containsKey(STATE_NAME)) {
+      return "";
+    }
+
+    JsonObject clients = state.getJsonObject(STATE_NAME);
+    int maxInFlight = clients.getInt("max-in-flight");
+    long succeeded = clients.getJsonNumber("succeeded").longValue();
+    return "==== Logical Clients ====\n"
+        + "Clients: "
+        + clients.getInt("clients")
+        + ", max in-flight operations: "
+        + (maxInFlight > 0 ? String.valueOf(maxInFlight) : "unlimited")
+        + "\n"
+        + "Throughput: "
+        + (double) succeeded / runForSec
+        + " ops\n"
+        + "Succeeded operations: "
+        + succeeded
+        + "\n"
+        + "Failed operations: "
+        + clients.getJsonNumber("failed").longValue()
+        + "\n";
+  }
+}
@@ -0,0 +1,171 @@
+package com.scalar.db.benchmarks.tpcc;
+
+import com.scalar.db.benchmarks.LatencyRecorder;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the delivery transactions in the deferred mode of the TPC-C specification. A terminal
+ * only puts a delivery request into a bounded queue, which blocks while the queue is full, and the
+ * background workers take the requests from the queue and execute them. The processor records how
+ * long the requests wait in the queue separately from how long they take to execute. The requests
+ * taken from the queue after the measurement period are discarded, so the workers don't keep
+ * executing and counting deliveries while the terminals finish.
+ */
+public class DeferredDelivery {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeferredDelivery.class);
+  public static final String STATE_NAME = "deferred_delivery";
+
+  /** A delivery request. */
+  @FunctionalInterface
+  public interface Request {
+    /**
+     * Executes the delivery.
+     *
+     * @param enqueuedNanos the {@code System.nanoTime()} at which the request was queued
+     * @throws Exception if the delivery fails
+     */
+    void execute(long enqueuedNanos) throws Exception;
+  }
+
+  private final int workers;
+  private final int queueSize;
+  private final BlockingQueue<QueuedRequest> queue;
+  private final ExecutorService executor;
+  private final LatencyRecorder latencyRecorder;
+  private final LongAdder executed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder discarded = new LongAdder();
+
+  /**
+   * Constructs a {@code DeferredDelivery} and starts its workers.
+   *
+   * @param workers the number of the workers
+   * @param queueSize the maximum number of the queued requests
+   * @param latencyRecorder the {@code LatencyRecorder} that knows the measurement period
+   */
+  public DeferredDelivery(int workers, int queueSize, LatencyRecorder latencyRecorder) {
+    if (workers < 1) {
+      throw new RuntimeException("the number of delivery workers must be positive");
+    }
+    if (queueSize < 1) {
+      throw new RuntimeException("the delivery queue size must be positive");
+    }
+    this.workers = workers;
+    this.queueSize = queueSize;
+    this.latencyRecorder = latencyRecorder;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.executor = Executors.newFixedThreadPool(workers);
+    for (int i = 0; i < workers; i++) {
+      executor.execute(this::work);
+    }
+  }
+
+  /**
+   * Queues a delivery request, waiting while the queue is full.
+   *
+   * @param request a delivery request
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void submit(Request request) throws InterruptedException {
+    queue.put(new QueuedRequest(request, System.nanoTime()));
+  }
+
+  private void work() {
+    while (!Thread.currentThread().isInterrupted()) {
+      QueuedRequest queued;
+      try {
+        queued = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (latencyRecorder.isAfterRun(System.nanoTime())) {
+        // the terminals can still be queuing requests, so the queue is drained without executing
+        discarded.increment();
+        continue;
+      }
+      try {
+        queued.request.execute(queued.enqueuedNanos);
+        executed.increment();
+      } catch (InterruptedException e) {
+        return;
+      } catch (Exception e) {
+        failed.increment();
+        LOGGER.warn("A deferred delivery failed", e);
+      }
+    }
+  }
+
+  /**
+   * Stops the workers and adds the numbers of the requests to the state. The requests left in the
+   * queue are not executed.
+   *
+   * @param state a {@code JsonObjectBuilder} of the state of the processor
+   */
+  public void close(JsonObjectBuilder state) {
+    executor.shutdownNow();
+    try {
+      if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+        LOGGER.warn("The delivery workers didn't stop in time");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    state.add(
+        STATE_NAME,
+        Json.createObjectBuilder()
+            .add("workers", workers)
+            .add("queue_size", queueSize)
+            .add("executed", executed.sum())
+            .add("failed", failed.sum())
+            .add("pending", queue.size() + discarded.sum()));
+  }
+
+  /**
+   * Creates a summary of the deferred deliveries in the state of a processor.
+   *
+   * @param state a {@code JsonObject} of the state of the processor
+   * @return a summary, or an empty {@code String} if the deliveries were not deferred
+   */
+  public static String summarize(JsonObject state) {
+    if (state == null || !state.containsKey(STATE_NAME)) {
+      return "";
+    }
+
+    JsonObject delivery = state.getJsonObject(STATE_NAME);
+    return "==== Deferred Delivery ====\n"
+        + "Workers: "
+        + delivery.getInt("workers")
+        + ", queue size: "
+        + delivery.getInt("queue_size")
+        + "\n"
+        + "Executed requests: "
+        + delivery.getJsonNumber("executed").longValue()
+        + ", failed requests: "
+        + delivery.getJsonNumber("failed").longValue()
+        + ", requests not executed in the run: "
+        + delivery.getInt("pending")
+        + "\n"
+        + "See Delivery.queue, Delivery.execution, and Delivery.completion in the latency details"
+        + " for the queue time, the execution time, and the time from queuing to completion\n";
+  }
+
+  private static class QueuedRequest {
+    private final Request request;
+    private final long enqueuedNanos;
+
+    QueuedRequest(Request request, long enqueuedNanos) {
+      this.request = request;
+      this.enqueuedNanos = enqueuedNanos;
+    }
+  }
+}
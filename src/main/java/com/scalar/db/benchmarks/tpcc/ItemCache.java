@@ -0,0 +1,106 @@
+package com.scalar.db.benchmarks.tpcc;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Result;
+import com.scalar.db.benchmarks.tpcc.table.Item;
+import com.scalar.db.exception.transaction.TransactionException;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A client-side cache of the names and prices of the items. The item table is never updated after
+ * loading, so New-Order can look up the items in the cache instead of reading them in its
+ * transaction, which also keeps the items out of the read set of the transaction. The cache is
+ * loaded once at startup and indexed by item ID.
+ */
+@ThreadSafe
+public class ItemCache {
+  private final double[] prices;
+  private final String[] names;
+
+  private ItemCache(double[] prices, String[] names) {
+    this.prices = prices;
+    this.names = names;
+  }
+
+  /**
+   * Loads all the items into a cache.
+   *
+   * @param manager a {@code DistributedTransactionManager} object
+   * @return an {@code ItemCache}
+   * @throws TransactionException if the scan fails
+   */
+  public static ItemCache load(DistributedTransactionManager manager) throws TransactionException {
+    double[] prices = new double[Item.ITEMS + 1];
+    Arrays.fill(prices, Double.NaN);
+    String[] names = new String[Item.ITEMS + 1];
+
+    DistributedTransaction transaction = manager.start();
+    try {
+      List<Result> results = transaction.scan(Item.createScanAll());
+      for (Result result : results) {
+        int itemId = result.getValue(Item.KEY_ID).get().getAsInt();
+        if (itemId < 1 || itemId > Item.ITEMS) {
+          continue;
+        }
+        prices[itemId] = result.getValue(Item.KEY_PRICE).get().getAsDouble();
+        names[itemId] = result.getValue(Item.KEY_NAME).get().getAsString().get();
+      }
+      // nothing is written, so the read set doesn't need to be validated
+      transaction.rollback();
+    } catch (Exception e) {
+      transaction.abort();
+      throw e;
+    }
+    return new ItemCache(prices, names);
+  }
+
+  /**
+   * Returns whether or not an item exists.
+   *
+   * @param itemId an item ID
+   * @return true if the item is in the cache
+   */
+  public boolean contains(int itemId) {
+    return itemId >= 1 && itemId <= Item.ITEMS && !Double.isNaN(prices[itemId]);
+  }
+
+  /**
+   * Returns the price of an item.
+   *
+   * @param itemId an item ID that is in the cache
+   * @return the price of the item
+   */
+  public double getPrice(int itemId) {
+    return prices[itemId];
+  }
+
+  /**
+   * Returns the name of an item.
+   *
+   * @param itemId an item ID
+   * @return the name of the item, or null if it is not in the cache
+   */
+  @Nullable
+  public String getName(int itemId) {
+    return itemId >= 1 && itemId <= Item.ITEMS ? names[itemId] : null;
+  }
+
+  /**
+   * Returns the number of the cached items.
+   *
+   * @return the number of items
+   */
+  public int size() {
+    int size = 0;
+    for (int i = 1; i <= Item.ITEMS; i++) {
+      if (!Double.isNaN(prices[i])) {
+        size++;
+      }
+    }
+    return size;
+  }
+}
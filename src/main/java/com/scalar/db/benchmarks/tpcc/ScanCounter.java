@@ -0,0 +1,85 @@
+package com.scalar.db.benchmarks.tpcc;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.exception.transaction.CrudException;
+import com.scalar.db.io.Column;
+import java.nio.ByteBuffer;
+import java.util.List;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Counts the rows and the bytes returned by the scans of a transaction to compare them with and
+ * without narrowing the scans. The bytes are estimated from the sizes of the column values in the
+ * results, so they count only the columns visible to the client, not the bytes read from the
+ * storage. Consensus Commit clears the projections when it reads from the storage and keeps whole
+ * records with their transaction metadata, so narrowing the scans doesn't reduce the network
+ * traffic with Consensus Commit even though the counted bytes decrease. The savings apply only to
+ * the transaction managers that push the projections down to the storage.
+ */
+@ThreadSafe
+public class ScanCounter {
+  private long rows;
+  private long bytes;
+
+  /**
+   * Executes a scan in a transaction and counts its results.
+   *
+   * @param transaction a {@code DistributedTransaction} object
+   * @param scan a {@code Scan} object
+   * @return the results of the scan
+   * @throws CrudException if the scan fails
+   */
+  public List<Result> scan(DistributedTransaction transaction, Scan scan) throws CrudException {
+    List<Result> results = transaction.scan(scan);
+    long size = 0;
+    for (Result result : results) {
+      for (Column<?> column : result.getColumns().values()) {
+        size += estimateSize(column);
+      }
+    }
+    add(results.size(), size);
+    return results;
+  }
+
+  private synchronized void add(long rows, long bytes) {
+    this.rows += rows;
+    this.bytes += bytes;
+  }
+
+  private static long estimateSize(Column<?> column) {
+    if (column.hasNullValue()) {
+      return 0;
+    }
+    switch (column.getDataType()) {
+      case BOOLEAN:
+        return 1;
+      case INT:
+      case FLOAT:
+      case DATE:
+        return 4;
+      case TEXT:
+        return column.getTextValue().length();
+      case BLOB:
+        ByteBuffer blob = column.getBlobValue();
+        return blob != null ? blob.remaining() : 0;
+      default:
+        return 8;
+    }
+  }
+
+  /** Resets the counts for a new attempt of the transaction. */
+  public synchronized void reset() {
+    rows = 0;
+    bytes = 0;
+  }
+
+  public synchronized long getRows() {
+    return rows;
+  }
+
+  public synchronized long getBytes() {
+    return bytes;
+  }
+}
@@ -0,0 +1,79 @@
+package com.scalar.db.benchmarks.tpcc;
+
+import com.scalar.db.benchmarks.tpcc.table.Warehouse;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A terminal that issues TPC-C transactions. An unbound terminal accesses any warehouse. As in the
+ * TPC-C specification, a bound terminal has a home warehouse and a home district, which are used
+ * by the transactions except for the remote accesses of New-Order and Payment. If there are fewer
+ * terminals than warehouses, a bound terminal owns a range of warehouses instead and picks its
+ * home warehouse and district for each transaction.
+ */
+@Immutable
+public class Terminal {
+  private static final int RANDOM_DISTRICT = 0;
+  private final int firstWarehouseId;
+  private final int lastWarehouseId;
+  private final int districtId;
+
+  private Terminal(int firstWarehouseId, int lastWarehouseId, int districtId) {
+    this.firstWarehouseId = firstWarehouseId;
+    this.lastWarehouseId = lastWarehouseId;
+    this.districtId = districtId;
+  }
+
+  /**
+   * Returns a terminal that accesses any warehouse.
+   *
+   * @param numWarehouse the number of warehouses
+   * @return an unbound {@code Terminal}
+   */
+  public static Terminal unbound(int numWarehouse) {
+    return new Terminal(1, numWarehouse, RANDOM_DISTRICT);
+  }
+
+  /**
+   * Returns a terminal bound to a warehouse and a district, or to a range of warehouses. The
+   * terminals are assigned to the warehouses in a round-robin manner, so that the warehouses have
+   * the same number of terminals and the terminals of a warehouse have different districts.
+   *
+   * @param index the index of the terminal, starting from 0
+   * @param numTerminals the number of terminals
+   * @param numWarehouse the number of warehouses
+   * @return a bound {@code Terminal}
+   */
+  public static Terminal bind(int index, int numTerminals, int numWarehouse) {
+    if (numTerminals < 1) {
+      throw new IllegalArgumentException("the number of terminals must be positive");
+    }
+    index %= numTerminals;
+    if (numTerminals >= numWarehouse) {
+      int warehouseId = index % numWarehouse + 1;
+      int districtId = index / numWarehouse % Warehouse.DISTRICTS + 1;
+      return new Terminal(warehouseId, warehouseId, districtId);
+    }
+    int first = (int) ((long) index * numWarehouse / numTerminals) + 1;
+    int last = (int) ((long) (index + 1) * numWarehouse / numTerminals);
+    return new Terminal(first, last, RANDOM_DISTRICT);
+  }
+
+  /**
+   * Returns the home warehouse ID of a transaction.
+   *
+   * @return a warehouse ID
+   */
+  public int nextWarehouseId() {
+    return TpccUtil.randomInt(firstWarehouseId, lastWarehouseId);
+  }
+
+  /**
+   * Returns the home district ID of a transaction that uses the district of the terminal, which is
+   * Stock-Level in the TPC-C specification. The other transactions choose a district randomly.
+   *
+   * @return a district ID
+   */
+  public int nextDistrictId() {
+    return districtId != RANDOM_DISTRICT ? districtId : TpccUtil.randomInt(1, Warehouse.DISTRICTS);
+  }
+}
@@ -1,32 +1,49 @@
 package com.scalar.db.benchmarks.tpcc;
 
-import static com.scalar.db.benchmarks.Common.getDatabaseConfig;
+import static com.scalar.db.benchmarks.Common.getTransactionManager;
 
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
+import com.scalar.db.benchmarks.ConcurrentOperations;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.benchmarks.LogicalClients;
 import com.scalar.db.benchmarks.tpcc.table.TpccRecord;
+import com.scalar.db.benchmarks.tpcc.table.Warehouse;
 import com.scalar.db.benchmarks.tpcc.transaction.DeliveryTransaction;
+import com.scalar.db.benchmarks.tpcc.transaction.IntentionalRollbackException;
 import com.scalar.db.benchmarks.tpcc.transaction.NewOrderTransaction;
 import com.scalar.db.benchmarks.tpcc.transaction.OrderStatusTransaction;
 import com.scalar.db.benchmarks.tpcc.transaction.PaymentTransaction;
 import com.scalar.db.benchmarks.tpcc.transaction.StockLevelTransaction;
 import com.scalar.db.benchmarks.tpcc.transaction.TpccTransaction;
-import com.scalar.db.config.DatabaseConfig;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
-import com.scalar.db.service.TransactionFactory;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.TimeBasedProcessor;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
 import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 
 public class TpccBench extends TimeBasedProcessor {
   private static final String CONFIG_NAME = "tpcc_config";
   private static final String NUM_WAREHOUSES = "num_warehouses";
   private static final String BACKOFF = "backoff";
   private static final String USE_TABLE_INDEX = "use_table_index";
+  private static final String TERMINAL_BINDING = "terminal_binding";
+  private static final String ITEM_CACHE = "item_cache";
+  private static final String NARROW_SCANS = "narrow_scans";
+  private static final String DELIVERY_MODE = "delivery_mode";
+  private static final String DEFERRED_DELIVERY = "deferred_delivery";
+  private static final String DELIVERY_WORKERS = "delivery_workers";
+  private static final String DELIVERY_QUEUE_SIZE = "delivery_queue_size";
+  private static final String STOCK_READ_BATCH_SIZE = "stock_read_batch_size";
   private static final String NP_ONLY = "np_only";
   private static final String RATE_NEW_ORDER = "rate_new_order";
   private static final String RATE_PAYMENT = "rate_payment";
@@ -36,22 +53,115 @@ public class TpccBench extends TimeBasedProcessor {
   private static final long DEFAULT_NUM_WAREHOUSES = 1;
   private static final long DEFAULT_BACKOFF = 0;
   private static final boolean DEFAULT_USE_TABLE_INDEX = false;
+  private static final boolean DEFAULT_TERMINAL_BINDING = false;
+  private static final boolean DEFAULT_SPEC_MODE = false;
+  private static final boolean DEFAULT_ITEM_CACHE = false;
+  private static final boolean DEFAULT_NARROW_SCANS = false;
+  private static final String DEFAULT_DELIVERY_MODE = DeliveryTransaction.MODE_SERIAL;
+  private static final boolean DEFAULT_DEFERRED_DELIVERY = false;
+  private static final long DEFAULT_DELIVERY_WORKERS = 1;
+  private static final long DEFAULT_DELIVERY_QUEUE_SIZE = 100;
+  private static final long DEFAULT_STOCK_READ_BATCH_SIZE = 1; // one read after another
+  private static final String ATTEMPT_SUFFIX = ".attempt";
+  private static final String QUEUE_SUFFIX = ".queue";
+  private static final String EXECUTION_SUFFIX = ".execution";
+  static final String COMPLETION_SUFFIX = ".completion"; // from queuing to completion
+  static final String TRANSACTION_STATS = "transaction_stats";
+  static final String ITEM_LOOKUPS = "item_lookups";
+  static final String STOCK_READS = "stock_reads";
+  static final String[] TRANSACTION_NAMES = {
+    "NewOrder", "Payment", "OrderStatus", "Delivery", "StockLevel"
+  };
   private final DistributedTransactionManager manager;
   private final AtomicInteger abortCounter = new AtomicInteger();
   private final TpccConfig tpccConfig;
+  private final int numWarehouses;
+  private final boolean terminalBinding;
+  private final boolean specMode;
+  private final ItemCache itemCache; // null unless the items are cached
+  // null unless Delivery or Stock-Level issues its operations concurrently
+  private final ConcurrentOperations concurrentOperations;
+  private final DeferredDelivery deferredDelivery; // null unless Delivery is deferred
+  private final AtomicInteger terminalCounter = new AtomicInteger();
+  private final ThreadLocal<Terminal> terminals;
+  private final ArrivalSchedule arrivalSchedule;
+  private final LogicalClients logicalClients;
+  private final LatencyRecorder latencyRecorder;
+  private final Map<String, TransactionCounters> transactionCounters = new LinkedHashMap<>();
+  private final ItemLookupCounters itemLookupCounters = new ItemLookupCounters();
+  private final StockReadCounters stockReadCounters = new StockReadCounters();
 
   public TpccBench(Config config) {
     super(config);
-    DatabaseConfig dbConfig = getDatabaseConfig(config);
-    TransactionFactory factory = new TransactionFactory(dbConfig);
-    manager = factory.getTransactionManager();
+    manager = getTransactionManager(config);
     manager.withNamespace(TpccRecord.NAMESPACE);
+    arrivalSchedule = new ArrivalSchedule(config);
+    logicalClients = new LogicalClients(config, arrivalSchedule);
+    latencyRecorder = new LatencyRecorder(config);
+    for (String name : TRANSACTION_NAMES) {
+      transactionCounters.put(name, new TransactionCounters());
+    }
 
-    int numWarehouses =
+    numWarehouses =
         (int) config.getUserLong(CONFIG_NAME, NUM_WAREHOUSES, DEFAULT_NUM_WAREHOUSES);
     int backoff = (int) config.getUserLong(CONFIG_NAME, BACKOFF, DEFAULT_BACKOFF);
     boolean useTableIndex =
         config.getUserBoolean(CONFIG_NAME, USE_TABLE_INDEX, DEFAULT_USE_TABLE_INDEX);
+    boolean narrowScans = config.getUserBoolean(CONFIG_NAME, NARROW_SCANS, DEFAULT_NARROW_SCANS);
+    String deliveryMode = config.getUserString(CONFIG_NAME, DELIVERY_MODE, DEFAULT_DELIVERY_MODE);
+    int stockReadBatchSize =
+        (int)
+            config.getUserLong(CONFIG_NAME, STOCK_READ_BATCH_SIZE, DEFAULT_STOCK_READ_BATCH_SIZE);
+    terminalBinding =
+        config.getUserBoolean(CONFIG_NAME, TERMINAL_BINDING, DEFAULT_TERMINAL_BINDING);
+    specMode = config.getUserBoolean(CONFIG_NAME, TpccSpec.SPEC_MODE, DEFAULT_SPEC_MODE);
+    if (specMode && arrivalSchedule.isOpenLoop()) {
+      throw new RuntimeException(
+          TpccSpec.SPEC_MODE + " cannot be used with a target rate since the terminals wait");
+    }
+    if (config.getUserBoolean(CONFIG_NAME, ITEM_CACHE, DEFAULT_ITEM_CACHE)) {
+      try {
+        itemCache = ItemCache.load(manager);
+      } catch (TransactionException e) {
+        throw new RuntimeException("failed to load the item cache", e);
+      }
+      logInfo("Loaded " + itemCache.size() + " items into the item cache");
+    } else {
+      itemCache = null;
+    }
+    // each Kelpie thread or logical client is a terminal, which is bound when it runs first
+    int numTerminals = logicalClients.getClientCount(config);
+    // a terminal issues at most this number of operations at once in addition to its own
+    int fanOut = 0;
+    if (deliveryMode.equals(DeliveryTransaction.MODE_PARALLEL)) {
+      fanOut = Warehouse.DISTRICTS - 1;
+    }
+    if (stockReadBatchSize > 1) {
+      fanOut = Math.max(fanOut, stockReadBatchSize - 1);
+    }
+    concurrentOperations =
+        fanOut > 0
+            ? new ConcurrentOperations(
+                config, DELIVERY_MODE + " or " + STOCK_READ_BATCH_SIZE, numTerminals * fanOut)
+            : null;
+    if (config.getUserBoolean(CONFIG_NAME, DEFERRED_DELIVERY, DEFAULT_DEFERRED_DELIVERY)) {
+      deferredDelivery =
+          new DeferredDelivery(
+              (int) config.getUserLong(CONFIG_NAME, DELIVERY_WORKERS, DEFAULT_DELIVERY_WORKERS),
+              (int)
+                  config.getUserLong(
+                      CONFIG_NAME, DELIVERY_QUEUE_SIZE, DEFAULT_DELIVERY_QUEUE_SIZE),
+              latencyRecorder);
+    } else {
+      deferredDelivery = null;
+    }
+    Terminal unbound = Terminal.unbound(numWarehouses);
+    terminals =
+        ThreadLocal.withInitial(
+            () ->
+                terminalBinding
+                    ? Terminal.bind(terminalCounter.getAndIncrement(), numTerminals, numWarehouses)
+                    : unbound);
     if (config.hasUserValue(CONFIG_NAME, NP_ONLY) && config.getUserBoolean(CONFIG_NAME, NP_ONLY)) {
       if (hasRateParameter()) {
         throw new RuntimeException(
@@ -63,6 +173,9 @@ public class TpccBench extends TimeBasedProcessor {
               .npOnly()
               .backoff(backoff)
               .useTableIndex(useTableIndex)
+              .narrowScans(narrowScans)
+              .deliveryMode(deliveryMode)
+              .stockReadBatchSize(stockReadBatchSize)
               .build();
     } else if (hasRateParameter()) {
       if (!hasAllRateParameters()) {
@@ -78,6 +191,9 @@ public class TpccBench extends TimeBasedProcessor {
               .rateDelivery((int) config.getUserLong(CONFIG_NAME, RATE_DELIVERY))
               .rateStockLevel((int) config.getUserLong(CONFIG_NAME, RATE_STOCK_LEVEL))
               .useTableIndex(useTableIndex)
+              .narrowScans(narrowScans)
+              .deliveryMode(deliveryMode)
+              .stockReadBatchSize(stockReadBatchSize)
               .backoff(backoff)
               .build();
     } else {
@@ -87,54 +203,158 @@ public class TpccBench extends TimeBasedProcessor {
               .fullMix()
               .backoff(backoff)
               .useTableIndex(useTableIndex)
+              .narrowScans(narrowScans)
+              .deliveryMode(deliveryMode)
+              .stockReadBatchSize(stockReadBatchSize)
               .build();
     }
   }
 
   @Override
-  public void executeEach() throws TransactionException {
+  public void executeEach() throws Exception {
+    logicalClients.execute(this::execute);
+  }
+
+  private void execute(long start) throws TransactionException, InterruptedException {
     TpccTransaction transaction = generateTpccTransaction();
+    if (specMode) {
+      // the response time starts after the keying time
+      TpccSpec.keying(transaction.getName());
+      start = System.nanoTime();
+    }
+    if (deferredDelivery != null && transaction instanceof DeliveryTransaction) {
+      // the terminal only waits until the request is queued
+      deferredDelivery.submit(enqueuedNanos -> executeDeferred(transaction, enqueuedNanos));
+    } else {
+      executeWithRetries(transaction, getCounters(transaction, start));
+    }
+    latencyRecorder.record(transaction.getName(), start);
+    if (specMode) {
+      TpccSpec.think(transaction.getName());
+    }
+  }
+
+  private void executeDeferred(TpccTransaction transaction, long enqueuedNanos)
+      throws TransactionException {
+    long dequeuedNanos = System.nanoTime();
+    latencyRecorder.record(transaction.getName() + QUEUE_SUFFIX, enqueuedNanos);
+    executeWithRetries(transaction, getCounters(transaction, enqueuedNanos));
+    latencyRecorder.record(transaction.getName() + EXECUTION_SUFFIX, dequeuedNanos);
+    latencyRecorder.record(transaction.getName() + COMPLETION_SUFFIX, enqueuedNanos);
+  }
+
+  @Nullable
+  private TransactionCounters getCounters(TpccTransaction transaction, long start) {
+    // the counters ignore the ramp-up period as the Kelpie statistics do
+    if (latencyRecorder.isInRampUp(start)) {
+      return null;
+    }
+    return transactionCounters.get(transaction.getName());
+  }
+
+  private void executeWithRetries(
+      TpccTransaction transaction, @Nullable TransactionCounters counters)
+      throws TransactionException {
     while (true) {
+      long attemptStart = System.nanoTime();
       try {
         transaction.execute();
         transaction.commit();
+        latencyRecorder.record(transaction.getName() + ATTEMPT_SUFFIX, attemptStart);
+        if (counters != null) {
+          counters.addScans(transaction.getScanCounter());
+          itemLookupCounters.add(transaction, attemptStart);
+          stockReadCounters.add(transaction);
+        }
         break;
       } catch (CrudConflictException | CommitConflictException e) {
         transaction.abort();
+        latencyRecorder.record(transaction.getName() + ATTEMPT_SUFFIX, attemptStart);
         abortCounter.incrementAndGet();
+        if (counters != null) {
+          counters.addScans(transaction.getScanCounter());
+          itemLookupCounters.add(transaction, attemptStart);
+          stockReadCounters.add(transaction);
+          if (e instanceof CrudConflictException) {
+            counters.crudConflict.increment();
+          } else {
+            counters.commitConflict.increment();
+          }
+        }
         Uninterruptibles.sleepUninterruptibly(tpccConfig.getBackoff(), TimeUnit.MILLISECONDS);
+      } catch (IntentionalRollbackException e) {
+        // the transaction is completed by the rollback, so it is not retried or failed
+        transaction.abort();
+        latencyRecorder.record(transaction.getName() + ATTEMPT_SUFFIX, attemptStart);
+        if (counters != null) {
+          counters.addScans(transaction.getScanCounter());
+          itemLookupCounters.add(transaction, attemptStart);
+          counters.rollback.increment();
+        }
+        return;
       } catch (Exception e) {
         transaction.abort();
+        if (counters != null) {
+          counters.failure.increment();
+        }
         throw e;
       }
     }
+    if (counters != null) {
+      counters.commit.increment();
+    }
   }
 
   @Override
   public void close() {
-    setState(Json.createObjectBuilder().add("abort_count", abortCounter.toString()).build());
+    JsonObjectBuilder state = Json.createObjectBuilder();
+    if (deferredDelivery != null) {
+      // the workers are stopped first so that the counters don't change any more
+      deferredDelivery.close(state);
+    }
+    JsonObjectBuilder stats = Json.createObjectBuilder();
+    transactionCounters.forEach((name, counters) -> stats.add(name, counters.toJson()));
+    state
+        .add("abort_count", abortCounter.toString())
+        .add(TpccSpec.NUM_WAREHOUSES, numWarehouses)
+        .add(TpccSpec.TERMINAL_BINDING, terminalBinding)
+        .add(TpccSpec.SPEC_MODE, specMode)
+        .add(TpccSpec.ITEM_CACHE, itemCache != null)
+        .add(NARROW_SCANS, tpccConfig.narrowScans())
+        .add(DELIVERY_MODE, tpccConfig.getDeliveryMode())
+        .add(ITEM_LOOKUPS, itemLookupCounters.toJson())
+        .add(STOCK_READ_BATCH_SIZE, tpccConfig.getStockReadBatchSize())
+        .add(STOCK_READS, stockReadCounters.toJson())
+        .add(TRANSACTION_STATS, stats);
+    latencyRecorder.close(state);
+    logicalClients.close(state);
+    setState(state.build());
+    if (concurrentOperations != null) {
+      concurrentOperations.close();
+    }
     manager.close();
   }
 
   private TpccTransaction generateTpccTransaction() {
+    Terminal terminal = terminals.get();
     int x = TpccUtil.randomInt(1, 100);
     if (x <= tpccConfig.getRateNewOrder()) {
-      return new NewOrderTransaction(manager, tpccConfig);
+      return new NewOrderTransaction(manager, tpccConfig, terminal, itemCache);
     } else if (x <= tpccConfig.getRateNewOrder() + tpccConfig.getRatePayment()) {
-      return new PaymentTransaction(manager, tpccConfig);
+      return new PaymentTransaction(manager, tpccConfig, terminal);
     } else if (x
         <= tpccConfig.getRateNewOrder()
             + tpccConfig.getRatePayment()
             + tpccConfig.getRateOrderStatus()) {
-      return new OrderStatusTransaction(manager, tpccConfig);
+      return new OrderStatusTransaction(manager, tpccConfig, terminal);
     } else if (x
         <= tpccConfig.getRateNewOrder()
             + tpccConfig.getRatePayment()
             + tpccConfig.getRateOrderStatus()
             + tpccConfig.getRateDelivery()) {
-      return new DeliveryTransaction(manager, tpccConfig);
+      return new DeliveryTransaction(manager, tpccConfig, terminal, concurrentOperations);
     } else {
-      return new StockLevelTransaction(manager, tpccConfig);
+      return new StockLevelTransaction(manager, tpccConfig, terminal, concurrentOperations);
     }
   }
 
@@ -153,4 +373,85 @@ public class TpccBench extends TimeBasedProcessor {
         && config.hasUserValue(CONFIG_NAME, RATE_DELIVERY)
         && config.hasUserValue(CONFIG_NAME, RATE_STOCK_LEVEL);
   }
+
+  /**
+   * Counters of the item lookups of New-Order, which show how much of the New-Order latency and
+   * the read set comes from the items.
+   */
+  private static class ItemLookupCounters {
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder attemptNanos = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private final LongAdder itemReads = new LongAdder();
+
+    void add(TpccTransaction transaction, long attemptStart) {
+      if (!(transaction instanceof NewOrderTransaction)) {
+        return;
+      }
+      NewOrderTransaction newOrder = (NewOrderTransaction) transaction;
+      attempts.increment();
+      attemptNanos.add(System.nanoTime() - attemptStart);
+      lookupNanos.add(newOrder.getItemLookupNanos());
+      itemReads.add(newOrder.getItemReads());
+    }
+
+    JsonObjectBuilder toJson() {
+      return Json.createObjectBuilder()
+          .add("attempts", attempts.sum())
+          .add("attempt_nanos", attemptNanos.sum())
+          .add("lookup_nanos", lookupNanos.sum())
+          .add("item_reads", itemReads.sum());
+    }
+  }
+
+  /** Counters of the stock reads of Stock-Level, which show the sequential waits for the reads. */
+  private static class StockReadCounters {
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+
+    void add(TpccTransaction transaction) {
+      if (!(transaction instanceof StockLevelTransaction)) {
+        return;
+      }
+      StockLevelTransaction stockLevel = (StockLevelTransaction) transaction;
+      attempts.increment();
+      reads.add(stockLevel.getStockReads());
+      waits.add(stockLevel.getStockReadWaits());
+    }
+
+    JsonObjectBuilder toJson() {
+      return Json.createObjectBuilder()
+          .add("attempts", attempts.sum())
+          .add("reads", reads.sum())
+          .add("waits", waits.sum());
+    }
+  }
+
+  /** Counters of a transaction type, which are striped to avoid contention among threads. */
+  private static class TransactionCounters {
+    private final LongAdder commit = new LongAdder();
+    private final LongAdder rollback = new LongAdder();
+    private final LongAdder crudConflict = new LongAdder();
+    private final LongAdder commitConflict = new LongAdder();
+    private final LongAdder failure = new LongAdder();
+    private final LongAdder scannedRows = new LongAdder();
+    private final LongAdder scannedBytes = new LongAdder();
+
+    void addScans(ScanCounter scanCounter) {
+      scannedRows.add(scanCounter.getRows());
+      scannedBytes.add(scanCounter.getBytes());
+    }
+
+    JsonObjectBuilder toJson() {
+      return Json.createObjectBuilder()
+          .add("commit", commit.sum())
+          .add("rollback", rollback.sum())
+          .add("crud_conflict", crudConflict.sum())
+          .add("commit_conflict", commitConflict.sum())
+          .add("failure", failure.sum())
+          .add("scanned_rows", scannedRows.sum())
+          .add("scanned_bytes", scannedBytes.sum());
+    }
+  }
 }
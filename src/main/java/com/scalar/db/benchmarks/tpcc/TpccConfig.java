@@ -1,5 +1,6 @@
 package com.scalar.db.benchmarks.tpcc;
 
+import com.scalar.db.benchmarks.tpcc.transaction.DeliveryTransaction;
 import javax.annotation.concurrent.Immutable;
 
 @Immutable
@@ -14,6 +15,9 @@ public class TpccConfig {
   private final int backoff;
   private final boolean isNpOnly;
   private final boolean useTableIndex;
+  private final boolean narrowScans;
+  private final String deliveryMode;
+  private final int stockReadBatchSize;
 
   /**
    * Constructs a {@code TpccConfig} with the specified {@link TpccConfig.Builder}.
@@ -30,6 +34,9 @@ public class TpccConfig {
     this.backoff = builder.backoff;
     this.isNpOnly = builder.isNpOnly;
     this.useTableIndex = builder.useTableIndex;
+    this.narrowScans = builder.narrowScans;
+    this.deliveryMode = builder.deliveryMode;
+    this.stockReadBatchSize = builder.stockReadBatchSize;
   }
 
   public int getRateNewOrder() {
@@ -68,6 +75,18 @@ public class TpccConfig {
     return useTableIndex;
   }
 
+  public boolean narrowScans() {
+    return narrowScans;
+  }
+
+  public String getDeliveryMode() {
+    return deliveryMode;
+  }
+
+  public int getStockReadBatchSize() {
+    return stockReadBatchSize;
+  }
+
   public static Builder newBuilder() {
     return new Builder();
   }
@@ -83,6 +102,9 @@ public class TpccConfig {
     private int backoff;
     private boolean isNpOnly;
     private boolean useTableIndex;
+    private boolean narrowScans;
+    private String deliveryMode;
+    private int stockReadBatchSize;
 
     private Builder() {
       rateNewOrder = 45;
@@ -94,6 +116,9 @@ public class TpccConfig {
       backoff = 0;
       isNpOnly = false;
       useTableIndex = false;
+      narrowScans = false;
+      deliveryMode = DeliveryTransaction.MODE_SERIAL;
+      stockReadBatchSize = 1;
     }
 
     public Builder fullMix() {
@@ -154,6 +179,21 @@ public class TpccConfig {
       return this;
     }
 
+    public Builder narrowScans(boolean narrowScans) {
+      this.narrowScans = narrowScans;
+      return this;
+    }
+
+    public Builder deliveryMode(String deliveryMode) {
+      this.deliveryMode = deliveryMode;
+      return this;
+    }
+
+    public Builder stockReadBatchSize(int stockReadBatchSize) {
+      this.stockReadBatchSize = stockReadBatchSize;
+      return this;
+    }
+
     /**
      * Builds a {@code TpccConfig} with the specified parameter.
      *
@@ -164,6 +204,14 @@ public class TpccConfig {
       if (total != 100) {
         throw new IllegalStateException("Total rate must be 100.");
       }
+      if (!deliveryMode.equals(DeliveryTransaction.MODE_SERIAL)
+          && !deliveryMode.equals(DeliveryTransaction.MODE_PARALLEL)
+          && !deliveryMode.equals(DeliveryTransaction.MODE_PER_DISTRICT)) {
+        throw new IllegalStateException("Unknown delivery mode: " + deliveryMode);
+      }
+      if (stockReadBatchSize < 1) {
+        throw new IllegalStateException("Stock read batch size must be positive.");
+      }
       if (rateNewOrder == ratePayment) {
         isNpOnly = true;
       }
@@ -1,11 +1,13 @@
 package com.scalar.db.benchmarks.tpcc;
 
-import static com.scalar.db.benchmarks.Common.getDatabaseConfig;
+import static com.scalar.db.benchmarks.Common.getTransactionManager;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Uninterruptibles;
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Put;
+import com.scalar.db.benchmarks.Common;
 import com.scalar.db.benchmarks.tpcc.table.Customer;
 import com.scalar.db.benchmarks.tpcc.table.CustomerSecondary;
 import com.scalar.db.benchmarks.tpcc.table.District;
@@ -18,48 +20,70 @@ import com.scalar.db.benchmarks.tpcc.table.OrderSecondary;
 import com.scalar.db.benchmarks.tpcc.table.Stock;
 import com.scalar.db.benchmarks.tpcc.table.TpccRecord;
 import com.scalar.db.benchmarks.tpcc.table.Warehouse;
-import com.scalar.db.config.DatabaseConfig;
-import com.scalar.db.exception.transaction.TransactionException;
-import com.scalar.db.service.TransactionFactory;
+import com.scalar.db.exception.transaction.AbortException;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.PreProcessor;
+import io.github.resilience4j.retry.Retry;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nullable;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.io.input.BOMInputStream;
+import org.apache.commons.io.input.CharSequenceReader;
 
 public class TpccLoader extends PreProcessor {
   private static final String CONFIG_NAME = "tpcc_config";
   private static final String LOAD_CONCURRENCY = "load_concurrency";
+  private static final String LOAD_BATCH_SIZE = "load_batch_size";
   private static final String NUM_WAREHOUSES = "num_warehouses";
   private static final String START_WAREHOUSE = "load_start_warehouse";
   private static final String END_WAREHOUSE = "load_end_warehouse";
   private static final String SKIP_ITEM_LOAD = "skip_item_load";
   private static final String USE_TABLE_INDEX = "use_table_index";
   private static final String CSV_FILE_DIRECTORY = "csv_file_directory";
+  private static final String PARALLEL_CSV_READ = "parallel_csv_read";
+  private static final String CSV_OUTPUT_DIRECTORY = "csv_output_directory";
   private static final long DEFAULT_LOAD_CONCURRENCY = 1;
+  private static final long DEFAULT_LOAD_BATCH_SIZE = 1;
   private static final long DEFAULT_START_WAREHOUSE = 1;
   private static final boolean DEFAULT_SKIP_ITEM_LOAD = false;
   private static final boolean DEFAULT_USE_TABLE_INDEX = false;
+  private static final boolean DEFAULT_PARALLEL_CSV_READ = false;
   private static final int QUEUE_SIZE = 10000;
+  private static final long MAX_CSV_RANGE_SIZE = 32L * 1024 * 1024;
   private static final String CUSTOMER = "customer.csv";
   private static final String CUSTOMER_SECONDARY = "customer_secondary.csv";
   private static final String DISTRICT = "district.csv";
@@ -94,6 +118,33 @@ public class TpccLoader extends PreProcessor {
           .split(",");
   private static final String[] WAREHOUSE_HEADER =
       "w_id,w_ytd,w_tax,w_name,w_street_1,w_street_2,w_city,w_state,w_zip".split(",");
+  private static final String[] CSV_FILES = {
+    WAREHOUSE,
+    ITEM,
+    STOCK,
+    DISTRICT,
+    CUSTOMER,
+    CUSTOMER_SECONDARY,
+    HISTORY,
+    ORDER,
+    NEW_ORDER,
+    ORDER_LINE,
+    ORDER_SECONDARY
+  };
+  private static final Map<Class<? extends TpccRecord>, String> FILE_MAP =
+      ImmutableMap.<Class<? extends TpccRecord>, String>builder()
+          .put(Customer.class, CUSTOMER)
+          .put(CustomerSecondary.class, CUSTOMER_SECONDARY)
+          .put(District.class, DISTRICT)
+          .put(History.class, HISTORY)
+          .put(Item.class, ITEM)
+          .put(NewOrder.class, NEW_ORDER)
+          .put(Order.class, ORDER)
+          .put(OrderLine.class, ORDER_LINE)
+          .put(OrderSecondary.class, ORDER_SECONDARY)
+          .put(Stock.class, STOCK)
+          .put(Warehouse.class, WAREHOUSE)
+          .build();
   private static final Map<String, String[]> HEADER_MAP =
       ImmutableMap.<String, String[]>builder()
           .put(CUSTOMER, CUSTOMER_HEADER)
@@ -108,23 +159,36 @@ public class TpccLoader extends PreProcessor {
           .put(STOCK, STOCK_HEADER)
           .put(WAREHOUSE, WAREHOUSE_HEADER)
           .build();
-  private final DistributedTransactionManager manager;
+  @Nullable private final DistributedTransactionManager manager;
   private final int concurrency;
+  private final int batchSize;
   private final int startWarehouse;
   private final int endWarehouse;
   private final boolean skipItemLoad;
   private final boolean useTableIndex;
+  private final boolean parallelCsvRead;
   @Nullable private final String directory;
+  @Nullable private final String outputDirectory;
 
   public TpccLoader(Config config) {
     super(config);
-    DatabaseConfig dbConfig = getDatabaseConfig(config);
-    TransactionFactory factory = new TransactionFactory(dbConfig);
-    manager = factory.getTransactionManager();
-    manager.withNamespace(TpccRecord.NAMESPACE);
+    if (config.hasUserValue(CONFIG_NAME, CSV_OUTPUT_DIRECTORY)) {
+      // the dataset is only written to CSV files, so no database connection is needed
+      this.outputDirectory = config.getUserString(CONFIG_NAME, CSV_OUTPUT_DIRECTORY);
+      this.manager = null;
+    } else {
+      this.outputDirectory = null;
+      this.manager = getTransactionManager(config);
+      this.manager.withNamespace(TpccRecord.NAMESPACE);
+    }
 
     this.concurrency =
         (int) config.getUserLong(CONFIG_NAME, LOAD_CONCURRENCY, DEFAULT_LOAD_CONCURRENCY);
+    this.batchSize =
+        (int) config.getUserLong(CONFIG_NAME, LOAD_BATCH_SIZE, DEFAULT_LOAD_BATCH_SIZE);
+    if (batchSize < 1) {
+      throw new RuntimeException(LOAD_BATCH_SIZE + " must be a positive number");
+    }
     this.skipItemLoad = config.getUserBoolean(CONFIG_NAME, SKIP_ITEM_LOAD, DEFAULT_SKIP_ITEM_LOAD);
     this.useTableIndex =
         config.getUserBoolean(CONFIG_NAME, USE_TABLE_INDEX, DEFAULT_USE_TABLE_INDEX);
@@ -133,6 +197,8 @@ public class TpccLoader extends PreProcessor {
     } else {
       this.directory = null;
     }
+    this.parallelCsvRead =
+        config.getUserBoolean(CONFIG_NAME, PARALLEL_CSV_READ, DEFAULT_PARALLEL_CSV_READ);
 
     if (config.hasUserValue(CONFIG_NAME, END_WAREHOUSE)
         && config.hasUserValue(CONFIG_NAME, NUM_WAREHOUSES)) {
@@ -155,79 +221,112 @@ public class TpccLoader extends PreProcessor {
 
   @Override
   public void execute() {
-    ExecutorService executor = Executors.newFixedThreadPool(concurrency + 1);
-    BlockingQueue<TpccRecord> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
-    AtomicBoolean isAllQueued = new AtomicBoolean();
-    AtomicInteger queuedCounter = new AtomicInteger();
-    AtomicInteger succeededCounter = new AtomicInteger();
-    AtomicInteger failedCounter = new AtomicInteger();
+    if (outputDirectory != null) {
+      generateCsv(new File(outputDirectory));
+      return;
+    }
 
+    List<BlockingQueue<QueuedRecord>> queues = new ArrayList<>(concurrency);
     for (int i = 0; i < concurrency; ++i) {
-      executor.execute(
+      queues.add(new ArrayBlockingQueue<>(QUEUE_SIZE));
+    }
+    LongAdder queuedCounter = new LongAdder();
+    LongAdder succeededCounter = new LongAdder();
+    LongAdder failedCounter = new LongAdder();
+
+    ExecutorService consumers = Executors.newFixedThreadPool(concurrency);
+    for (BlockingQueue<QueuedRecord> queue : queues) {
+      consumers.execute(() -> consume(queue, succeededCounter, failedCounter));
+    }
+
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+    long startTime = System.currentTimeMillis();
+    reporter.scheduleAtFixedRate(
+        () -> logProgress(startTime, queuedCounter, succeededCounter, failedCounter),
+        1,
+        1,
+        TimeUnit.SECONDS);
+
+    List<Runnable> producers = new ArrayList<>();
+    if (directory != null && parallelCsvRead) {
+      int shard = 0;
+      for (String name : CSV_FILES) {
+        File file = new File(directory, name);
+        for (long[] range : splitCsv(file)) {
+          int first = shard++ % concurrency;
+          producers.add(
+              () ->
+                  queueCsvRange(
+                      file, range[0], range[1], new QueueWriter(queues, first, queuedCounter)));
+        }
+      }
+    } else if (directory != null) {
+      producers.add(
           () -> {
-            while (true) {
-              TpccRecord record = queue.poll();
-              if (record == null) {
-                if (isAllQueued.get()) {
-                  break;
-                }
-                Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
-                continue;
-              }
-              try {
-                insert(manager, record);
-                succeededCounter.incrementAndGet();
-              } catch (Exception e) {
-                e.printStackTrace();
-                failedCounter.incrementAndGet();
-              }
+            QueueWriter writer = new QueueWriter(queues, 0, queuedCounter);
+            for (String name : CSV_FILES) {
+              queueCsv(new File(directory, name), writer);
             }
           });
-    }
-
-    Future<?> future =
-        executor.submit(
+    } else {
+      if (!skipItemLoad) {
+        producers.add(
             () -> {
-              while (!isAllQueued.get()
-                  || succeededCounter.get() + failedCounter.get() < queuedCounter.get()) {
-                logInfo(succeededCounter.get() + " succeeded, " + failedCounter + " failed");
-                Uninterruptibles.sleepUninterruptibly(1000, TimeUnit.MILLISECONDS);
+              QueueWriter writer = new QueueWriter(queues, 0, queuedCounter);
+              try {
+                for (int itemId = 1; itemId <= Item.ITEMS; itemId++) {
+                  writer.put(new Item(itemId));
+                }
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
               }
             });
-
-    if (directory != null) {
-      queueCsv(new File(directory, WAREHOUSE), queue, queuedCounter);
-      queueCsv(new File(directory, ITEM), queue, queuedCounter);
-      queueCsv(new File(directory, STOCK), queue, queuedCounter);
-      queueCsv(new File(directory, DISTRICT), queue, queuedCounter);
-      queueCsv(new File(directory, CUSTOMER), queue, queuedCounter);
-      queueCsv(new File(directory, CUSTOMER_SECONDARY), queue, queuedCounter);
-      queueCsv(new File(directory, HISTORY), queue, queuedCounter);
-      queueCsv(new File(directory, ORDER), queue, queuedCounter);
-      queueCsv(new File(directory, NEW_ORDER), queue, queuedCounter);
-      queueCsv(new File(directory, ORDER_LINE), queue, queuedCounter);
-      queueCsv(new File(directory, ORDER_SECONDARY), queue, queuedCounter);
-    } else {
-      try {
-        if (!skipItemLoad) {
-          for (int itemId = 1; itemId <= Item.ITEMS; itemId++) {
-            queue.put(new Item(itemId));
-            queuedCounter.incrementAndGet();
-          }
+      }
+      // split the warehouses into contiguous ranges so that each generator feeds its own range
+      int numWarehouses = endWarehouse - startWarehouse + 1;
+      int numGenerators = Math.max(1, Math.min(concurrency, numWarehouses));
+      int warehousesPerGenerator = (numWarehouses + numGenerators - 1) / numGenerators;
+      for (int i = 0; i < numGenerators; ++i) {
+        int first = startWarehouse + warehousesPerGenerator * i;
+        int last = Math.min(first + warehousesPerGenerator - 1, endWarehouse);
+        if (first > last) {
+          break;
         }
-        queueWarehouses(queue, queuedCounter);
-      } catch (InterruptedException e) {
-        throw new RuntimeException(e);
+        int shard = (i + 1) % concurrency;
+        producers.add(
+            () -> {
+              QueueWriter writer = new QueueWriter(queues, shard, queuedCounter);
+              try {
+                queueWarehouses(writer, first, last);
+              } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+              }
+            });
       }
     }
-    isAllQueued.set(true);
 
+    ExecutorService generators =
+        Executors.newFixedThreadPool(Math.min(producers.size(), concurrency + 1));
+    List<Future<?>> futures = new ArrayList<>();
+    producers.forEach(p -> futures.add(generators.submit(p)));
     try {
-      future.get();
-      executor.shutdown();
-      Uninterruptibles.awaitTerminationUninterruptibly(executor);
-    } catch (java.util.concurrent.ExecutionException | InterruptedException e) {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException | InterruptedException e) {
       throw new RuntimeException(e);
+    } finally {
+      generators.shutdownNow();
+      // no generator may queue a record after the end of the records
+      Uninterruptibles.awaitTerminationUninterruptibly(generators);
+      // every shard gets the end after the last record so that its consumer can stop
+      for (BlockingQueue<QueuedRecord> queue : queues) {
+        Uninterruptibles.putUninterruptibly(queue, QueuedRecord.END);
+      }
+      consumers.shutdown();
+      Uninterruptibles.awaitTerminationUninterruptibly(consumers);
+      reporter.shutdownNow();
+      logProgress(startTime, queuedCounter, succeededCounter, failedCounter);
     }
 
     logInfo("all records have been inserted");
@@ -235,40 +334,199 @@ public class TpccLoader extends PreProcessor {
 
   @Override
   public void close() {
-    manager.close();
+    if (manager != null) {
+      manager.close();
+    }
+  }
+
+  /**
+   * Writes the dataset to CSV files in the specified directory instead of inserting it. Each
+   * warehouse is generated into its own set of part files in parallel. The parts are then
+   * concatenated in warehouse order into the files that {@code csv_file_directory} reads.
+   *
+   * @param dir an output directory
+   */
+  private void generateCsv(File dir) {
+    File partsDir = new File(dir, "parts");
+    if (!partsDir.isDirectory() && !partsDir.mkdirs()) {
+      throw new RuntimeException("failed to create a directory: " + partsDir.getPath());
+    }
+    LongAdder generatedCounter = new LongAdder();
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+    long startTime = System.currentTimeMillis();
+    reporter.scheduleAtFixedRate(
+        () -> logGenerationProgress(startTime, generatedCounter), 1, 1, TimeUnit.SECONDS);
+
+    List<File> parts = new ArrayList<>();
+    List<Runnable> tasks = new ArrayList<>();
+    if (!skipItemLoad) {
+      File part = new File(partsDir, "item");
+      parts.add(part);
+      tasks.add(
+          () -> {
+            try (CsvWriter writer = new CsvWriter(part, generatedCounter)) {
+              for (int itemId = 1; itemId <= Item.ITEMS; itemId++) {
+                writer.put(new Item(itemId));
+              }
+            }
+          });
+    }
+    for (int warehouseId = startWarehouse; warehouseId <= endWarehouse; warehouseId++) {
+      int id = warehouseId;
+      File part = new File(partsDir, String.format("warehouse_%05d", id));
+      parts.add(part);
+      tasks.add(
+          () -> {
+            try (CsvWriter writer = new CsvWriter(part, generatedCounter)) {
+              queueWarehouses(writer, id, id);
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+          });
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    try {
+      runAll(executor, tasks);
+      logGenerationProgress(startTime, generatedCounter);
+
+      List<Runnable> merges = new ArrayList<>();
+      for (String name : CSV_FILES) {
+        merges.add(() -> mergeCsv(new File(dir, name), parts));
+      }
+      runAll(executor, merges);
+    } finally {
+      executor.shutdownNow();
+      reporter.shutdownNow();
+    }
+    deleteRecursively(partsDir);
+
+    logInfo("all records have been written to " + dir.getPath());
   }
 
-  private void queueWarehouses(BlockingQueue<TpccRecord> queue, AtomicInteger counter)
+  private void runAll(ExecutorService executor, List<Runnable> tasks) {
+    List<Future<?>> futures = new ArrayList<>();
+    tasks.forEach(t -> futures.add(executor.submit(t)));
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void mergeCsv(File output, List<File> parts) {
+    try (FileChannel out =
+        FileChannel.open(
+            output.toPath(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      for (File part : parts) {
+        File file = new File(part, output.getName());
+        if (!file.exists()) {
+          continue;
+        }
+        try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+          long position = 0;
+          long size = in.size();
+          while (position < size) {
+            position += in.transferTo(position, size - position, out);
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("failed to write a CSV file: " + output.getPath(), e);
+    }
+  }
+
+  private void deleteRecursively(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    if (!file.delete()) {
+      logWarn("failed to delete " + file.getPath());
+    }
+  }
+
+  private void logGenerationProgress(long startTime, LongAdder generatedCounter) {
+    double elapsed = Math.max(1, System.currentTimeMillis() - startTime) / 1000.0;
+    long generated = generatedCounter.sum();
+    logInfo(String.format("%d generated (%.0f records/s)", generated, generated / elapsed));
+  }
+
+  private void consume(
+      BlockingQueue<QueuedRecord> queue, LongAdder succeededCounter, LongAdder failedCounter) {
+    List<QueuedRecord> queued = new ArrayList<>(batchSize);
+    List<TpccRecord> records = new ArrayList<>(batchSize);
+    boolean finished = false;
+    while (!finished) {
+      try {
+        queued.add(queue.take());
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      queue.drainTo(queued, batchSize - 1);
+      for (QueuedRecord element : queued) {
+        // the end is always the last element of its queue
+        if (element.record == null) {
+          finished = true;
+          break;
+        }
+        records.add(element.record);
+      }
+      queued.clear();
+      if (records.isEmpty()) {
+        continue;
+      }
+      try {
+        insert(manager, records);
+        succeededCounter.add(records.size());
+      } catch (Exception e) {
+        e.printStackTrace();
+        failedCounter.add(records.size());
+      }
+      records.clear();
+    }
+  }
+
+  private void logProgress(
+      long startTime, LongAdder queuedCounter, LongAdder succeededCounter, LongAdder failedCounter) {
+    double elapsed = Math.max(1, System.currentTimeMillis() - startTime) / 1000.0;
+    long queued = queuedCounter.sum();
+    long succeeded = succeededCounter.sum();
+    logInfo(
+        String.format(
+            "%d generated (%.0f records/s), %d succeeded (%.0f records/s), %d failed",
+            queued, queued / elapsed, succeeded, succeeded / elapsed, failedCounter.sum()));
+  }
+
+  private void queueWarehouses(RecordSink writer, int firstWarehouse, int lastWarehouse)
       throws InterruptedException {
     Date date = new Date();
-    for (int warehouseId = startWarehouse; warehouseId <= endWarehouse; warehouseId++) {
-      queue.put(new Warehouse(warehouseId));
-      counter.incrementAndGet();
+    for (int warehouseId = firstWarehouse; warehouseId <= lastWarehouse; warehouseId++) {
+      writer.put(new Warehouse(warehouseId));
       for (int stockId = 1; stockId <= Warehouse.STOCKS; stockId++) {
-        queue.put(new Stock(warehouseId, stockId));
-        counter.incrementAndGet();
+        writer.put(new Stock(warehouseId, stockId));
       }
-      queueDistricts(queue, counter, warehouseId, date);
+      queueDistricts(writer, warehouseId, date);
     }
   }
 
-  private void queueDistricts(
-      BlockingQueue<TpccRecord> queue, AtomicInteger counter, int warehouseId, Date date)
+  private void queueDistricts(RecordSink writer, int warehouseId, Date date)
       throws InterruptedException {
     for (int districtId = 1; districtId <= Warehouse.DISTRICTS; districtId++) {
-      queue.put(new District(warehouseId, districtId));
-      counter.incrementAndGet();
-      queueCustomers(queue, counter, warehouseId, districtId, date);
-      queueOrders(queue, counter, warehouseId, districtId, date);
+      writer.put(new District(warehouseId, districtId));
+      queueCustomers(writer, warehouseId, districtId, date);
+      queueOrders(writer, warehouseId, districtId, date);
     }
   }
 
-  private void queueCustomers(
-      BlockingQueue<TpccRecord> queue,
-      AtomicInteger counter,
-      int warehouseId,
-      int districtId,
-      Date date)
+  private void queueCustomers(RecordSink writer, int warehouseId, int districtId, Date date)
       throws InterruptedException {
     for (int customerId = 1; customerId <= District.CUSTOMERS; customerId++) {
       Customer customer = new Customer(warehouseId, districtId, customerId, date);
@@ -276,26 +534,18 @@ public class TpccLoader extends PreProcessor {
       String first = customer.getFirstName();
       // customer_secondary
       if (useTableIndex) {
-        queue.put(new CustomerSecondary(warehouseId, districtId, last, first, customerId));
-        counter.incrementAndGet();
+        writer.put(new CustomerSecondary(warehouseId, districtId, last, first, customerId));
       } else {
         customer.buildIndexColumn();
       }
       // customer
-      queue.put(customer);
-      counter.incrementAndGet();
+      writer.put(customer);
       // history
-      queue.put(new History(customerId, districtId, warehouseId, districtId, warehouseId, date));
-      counter.incrementAndGet();
+      writer.put(new History(customerId, districtId, warehouseId, districtId, warehouseId, date));
     }
   }
 
-  private void queueOrders(
-      BlockingQueue<TpccRecord> queue,
-      AtomicInteger counter,
-      int warehouseId,
-      int districtId,
-      Date date)
+  private void queueOrders(RecordSink writer, int warehouseId, int districtId, Date date)
       throws InterruptedException {
     List<Integer> customers = new ArrayList<>();
     for (int customerId = 1; customerId <= District.CUSTOMERS; customerId++) {
@@ -309,96 +559,299 @@ public class TpccLoader extends PreProcessor {
       Order order = new Order(warehouseId, districtId, orderId, customerId, date);
       // order & order-secondary
       if (useTableIndex) {
-        queue.put(new OrderSecondary(warehouseId, districtId, customerId, orderId));
-        counter.incrementAndGet();
+        writer.put(new OrderSecondary(warehouseId, districtId, customerId, orderId));
       } else {
         order.buildIndexColumn();
       }
-      queue.put(order);
-      counter.incrementAndGet();
+      writer.put(order);
       int orderLineCount = order.getOrderLineCount();
       for (int number = 1; number <= orderLineCount; number++) {
         int itemId = TpccUtil.randomInt(1, Item.ITEMS);
         // order-line
-        queue.put(
+        writer.put(
             new OrderLine(warehouseId, districtId, orderId, number, warehouseId, itemId, date));
-        counter.incrementAndGet();
       }
       if (orderId > 2100) {
         // new-order
-        queue.put(new NewOrder(warehouseId, districtId, orderId));
-        counter.incrementAndGet();
+        writer.put(new NewOrder(warehouseId, districtId, orderId));
       }
     }
   }
 
-  private void insert(DistributedTransactionManager manager, TpccRecord record)
-      throws TransactionException {
-    DistributedTransaction tx = manager.start();
-    tx.withNamespace(TpccRecord.NAMESPACE);
-    try {
-      tx.put(record.createPut());
-      tx.commit();
-    } catch (Exception e) {
-      tx.abort();
-      throw e;
+  /**
+   * Inserts the specified records in a single transaction. Puts are grouped by table and partition
+   * so that records sharing a partition are written next to each other. The whole batch is retried
+   * on failure.
+   *
+   * @param manager a {@code DistributedTransactionManager} object
+   * @param records a list of {@code TpccRecord} objects
+   */
+  private void insert(DistributedTransactionManager manager, List<TpccRecord> records) {
+    Map<List<Object>, List<Put>> groups = new LinkedHashMap<>();
+    for (TpccRecord record : records) {
+      Put put = record.createPut();
+      groups
+          .computeIfAbsent(
+              Arrays.asList(put.forTable().orElse(null), put.getPartitionKey()),
+              k -> new ArrayList<>())
+          .add(put);
     }
-  }
 
-  private void queueCsv(File file, BlockingQueue<TpccRecord> queue, AtomicInteger counter) {
-    CSVFormat format =
-        CSVFormat.Builder.create(CSVFormat.DEFAULT)
-            .setHeader(HEADER_MAP.get(file.getName()))
-            .build();
+    Runnable populate =
+        () -> {
+          DistributedTransaction tx = null;
+          try {
+            tx = manager.start();
+            tx.withNamespace(TpccRecord.NAMESPACE);
+            for (List<Put> puts : groups.values()) {
+              for (Put put : puts) {
+                tx.put(put);
+              }
+            }
+            tx.commit();
+          } catch (Exception e) {
+            if (tx != null) {
+              try {
+                tx.abort();
+              } catch (AbortException ex) {
+                logWarn("abort failed", ex);
+              }
+            }
+            throw new RuntimeException("load failed", e);
+          }
+        };
 
+    Retry retry = Common.getRetryWithFixedWaitDuration("load");
+    Retry.decorateRunnable(retry, populate).run();
+  }
+
+  private void queueCsv(File file, RecordSink writer) {
     try (BufferedReader reader =
         new BufferedReader(new InputStreamReader(new BOMInputStream(new FileInputStream(file))))) {
-      CSVParser parser = CSVParser.parse(reader, format);
-      for (CSVRecord record : parser) {
-        switch (file.getName()) {
-          case CUSTOMER:
-            Customer customer = new Customer(record);
-            if (!useTableIndex) {
-              customer.buildIndexColumn();
-            }
-            queue.put(customer);
-            break;
-          case CUSTOMER_SECONDARY:
-            queue.put(new CustomerSecondary(record));
-            break;
-          case DISTRICT:
-            queue.put(new District(record));
-            break;
-          case HISTORY:
-            queue.put(new History(record));
-            break;
-          case ITEM:
-            queue.put(new Item(record));
-            break;
-          case NEW_ORDER:
-            queue.put(new NewOrder(record));
-            break;
-          case ORDER:
-            queue.put(new Order(record));
-            break;
-          case ORDER_LINE:
-            queue.put(new OrderLine(record));
-            break;
-          case ORDER_SECONDARY:
-            queue.put(new OrderSecondary(record));
-            break;
-          case STOCK:
-            queue.put(new Stock(record));
-            break;
-          case WAREHOUSE:
-            queue.put(new Warehouse(record));
-            break;
-          default:
-        }
-        counter.incrementAndGet();
+      queueCsv(file.getName(), reader, writer);
+    } catch (Exception e) {
+      throw new RuntimeException("failed to load a CSV file: " + file.getPath(), e);
+    }
+  }
+
+  /**
+   * Queues the records in the specified byte range of a CSV file. The range is memory-mapped and
+   * parsed independently of the other ranges of the same file.
+   *
+   * @param file a CSV file
+   * @param start the start offset of the range, which must be at a line boundary
+   * @param end the end offset (exclusive) of the range, which must be at a line boundary
+   * @param writer a {@code RecordSink} object
+   */
+  private void queueCsvRange(File file, long start, long end, RecordSink writer) {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+      CharBuffer chars = StandardCharsets.UTF_8.decode(buffer);
+      if (start == 0 && chars.length() > 0 && chars.charAt(0) == '\uFEFF') {
+        chars.position(1);
       }
+      queueCsv(file.getName(), new CharSequenceReader(chars), writer);
     } catch (Exception e) {
       throw new RuntimeException("failed to load a CSV file: " + file.getPath(), e);
     }
   }
+
+  /**
+   * Splits a CSV file into byte ranges at line boundaries. A file is split into at least {@code
+   * concurrency} ranges, and no range is larger than {@code MAX_CSV_RANGE_SIZE} unless a single
+   * line is. CSV files are written warehouse by warehouse, so each range covers a contiguous set of
+   * warehouses.
+   *
+   * @param file a CSV file
+   * @return a list of {start, end} offsets
+   */
+  private List<long[]> splitCsv(File file) {
+    List<long[]> ranges = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      long numRanges = Math.max(concurrency, (size + MAX_CSV_RANGE_SIZE - 1) / MAX_CSV_RANGE_SIZE);
+      long rangeSize = Math.max(1, size / numRanges);
+      long start = 0;
+      while (start < size) {
+        long end = nextLineStart(channel, Math.min(start + rangeSize, size));
+        ranges.add(new long[] {start, end});
+        start = end;
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("failed to split a CSV file: " + file.getPath(), e);
+    }
+    return ranges;
+  }
+
+  private long nextLineStart(FileChannel channel, long position) throws IOException {
+    long size = channel.size();
+    if (position >= size) {
+      return size;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    // the range may already end at a line boundary
+    long offset = position - 1;
+    while (offset < size) {
+      buffer.clear();
+      int read = channel.read(buffer, offset);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (buffer.get(i) == '\n') {
+          return offset + i + 1;
+        }
+      }
+      offset += read;
+    }
+    return size;
+  }
+
+  private void queueCsv(String name, Reader reader, RecordSink writer) throws Exception {
+    CSVFormat format =
+        CSVFormat.Builder.create(CSVFormat.DEFAULT).setHeader(HEADER_MAP.get(name)).build();
+    CSVParser parser = CSVParser.parse(reader, format);
+    for (CSVRecord record : parser) {
+      switch (name) {
+        case CUSTOMER:
+          Customer customer = new Customer(record);
+          if (!useTableIndex) {
+            customer.buildIndexColumn();
+          }
+          writer.put(customer);
+          break;
+        case CUSTOMER_SECONDARY:
+          writer.put(new CustomerSecondary(record));
+          break;
+        case DISTRICT:
+          writer.put(new District(record));
+          break;
+        case HISTORY:
+          writer.put(new History(record));
+          break;
+        case ITEM:
+          writer.put(new Item(record));
+          break;
+        case NEW_ORDER:
+          writer.put(new NewOrder(record));
+          break;
+        case ORDER:
+          writer.put(new Order(record));
+          break;
+        case ORDER_LINE:
+          writer.put(new OrderLine(record));
+          break;
+        case ORDER_SECONDARY:
+          writer.put(new OrderSecondary(record));
+          break;
+        case STOCK:
+          writer.put(new Stock(record));
+          break;
+        case WAREHOUSE:
+          writer.put(new Warehouse(record));
+          break;
+        default:
+      }
+    }
+  }
+
+  /**
+   * Distributes records of a single generator over the sharded queues. Records are handed to one
+   * shard in runs of {@code batchSize} so that a consumer sees consecutive records of the same
+   * partitions, then the writer moves on to the next shard.
+   */
+  private class QueueWriter implements RecordSink {
+    private final List<BlockingQueue<QueuedRecord>> queues;
+    private final LongAdder counter;
+    private int shard;
+    private int count;
+
+    QueueWriter(List<BlockingQueue<QueuedRecord>> queues, int shard, LongAdder counter) {
+      this.queues = queues;
+      this.shard = shard;
+      this.counter = counter;
+    }
+
+    @Override
+    public void put(TpccRecord record) throws InterruptedException {
+      queues.get(shard).put(new QueuedRecord(record));
+      counter.increment();
+      if (++count == batchSize) {
+        count = 0;
+        shard = (shard + 1) % queues.size();
+      }
+    }
+  }
+
+  /** An element of a consumer queue, which is a record or the end of the records. */
+  private static class QueuedRecord {
+    private static final QueuedRecord END = new QueuedRecord(null);
+    @Nullable private final TpccRecord record;
+
+    QueuedRecord(@Nullable TpccRecord record) {
+      this.record = record;
+    }
+  }
+
+  private interface RecordSink {
+    void put(TpccRecord record) throws InterruptedException;
+  }
+
+  /** Writes generated records to one buffered CSV file per table in a part directory. */
+  private static class CsvWriter implements RecordSink, AutoCloseable {
+    private final File dir;
+    private final LongAdder counter;
+    private final Map<String, CSVPrinter> printers = new HashMap<>();
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    CsvWriter(File dir, LongAdder counter) {
+      if (!dir.isDirectory() && !dir.mkdirs()) {
+        throw new RuntimeException("failed to create a directory: " + dir.getPath());
+      }
+      this.dir = dir;
+      this.counter = counter;
+    }
+
+    @Override
+    public void put(TpccRecord record) {
+      String name = FILE_MAP.get(record.getClass());
+      String[] header = HEADER_MAP.get(name);
+      List<String> columns = new ArrayList<>(header.length);
+      for (String column : header) {
+        Object value = record.getColumn(column);
+        if (value == null) {
+          columns.add("");
+        } else if (value instanceof Date) {
+          columns.add(dateFormat.format((Date) value));
+        } else {
+          columns.add(value.toString());
+        }
+      }
+      try {
+        CSVPrinter printer = printers.get(name);
+        if (printer == null) {
+          printer =
+              new CSVPrinter(
+                  Files.newBufferedWriter(new File(dir, name).toPath(), StandardCharsets.UTF_8),
+                  CSVFormat.DEFAULT);
+          printers.put(name, printer);
+        }
+        printer.printRecord(columns);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      counter.increment();
+    }
+
+    @Override
+    public void close() {
+      for (CSVPrinter printer : printers.values()) {
+        try {
+          printer.close();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+    }
+  }
 }
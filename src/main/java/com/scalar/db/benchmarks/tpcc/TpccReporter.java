@@ -1,8 +1,11 @@
 package com.scalar.db.benchmarks.tpcc;
 
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.benchmarks.LogicalClients;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.PostProcessor;
 import com.scalar.kelpie.stats.Stats;
+import javax.json.JsonObject;
 
 public class TpccReporter extends PostProcessor {
 
@@ -21,7 +24,124 @@ public class TpccReporter extends PostProcessor {
         "==== Statistics Details ====\n"
             + "Transaction abort count: "
             + getPreviousState().getString("abort_count")
-            + "\n");
+            + "\n"
+            + "Terminal binding: "
+            + getPreviousState().getBoolean("terminal_binding", false)
+            + "\n"
+            + summarizeTransactions(getPreviousState())
+            + summarizeItemLookups(getPreviousState())
+            + summarizeStockReads(getPreviousState())
+            + TpccSpec.validate(getPreviousState(), config.getRunForSec())
+            + DeferredDelivery.summarize(getPreviousState())
+            + LatencyRecorder.summarize(getPreviousState())
+            + LogicalClients.summarize(getPreviousState(), config.getRunForSec()));
+  }
+
+  private String summarizeTransactions(JsonObject state) {
+    if (!state.containsKey(TpccBench.TRANSACTION_STATS)) {
+      return "";
+    }
+
+    JsonObject stats = state.getJsonObject(TpccBench.TRANSACTION_STATS);
+    double runForSec = config.getRunForSec();
+    StringBuilder summary = new StringBuilder("==== Transaction Details ====\n");
+    for (String name : TpccBench.TRANSACTION_NAMES) {
+      JsonObject counts = stats.getJsonObject(name);
+      long commit = counts.getJsonNumber("commit").longValue();
+      long rollback = counts.getJsonNumber("rollback").longValue();
+      long completed = TpccSpec.getCompleted(counts);
+      long crudConflict = counts.getJsonNumber("crud_conflict").longValue();
+      long commitConflict = counts.getJsonNumber("commit_conflict").longValue();
+      summary
+          .append(name)
+          .append(": commits=")
+          .append(commit)
+          .append(String.format(" (%.2f tps)", commit / runForSec))
+          .append(", rollbacks=")
+          .append(rollback)
+          .append(", CRUD conflicts=")
+          .append(crudConflict)
+          .append(", commit conflicts=")
+          .append(commitConflict)
+          .append(", retries=")
+          .append(crudConflict + commitConflict)
+          .append(", failures=")
+          .append(counts.getJsonNumber("failure").longValue())
+          .append(
+              String.format(
+                  ", scanned rows/tx=%.2f, scanned client-visible bytes/tx=%.1f",
+                  perTransaction(counts.getJsonNumber("scanned_rows").longValue(), completed),
+                  perTransaction(counts.getJsonNumber("scanned_bytes").longValue(), completed)))
+          .append('\n');
+    }
+    summary
+        .append("Narrow scans: ")
+        .append(state.getBoolean("narrow_scans", false))
+        .append(
+            " (the scanned bytes count only the columns visible to the client; Consensus Commit"
+                + " reads whole records from the storage, so narrow scans save network traffic only"
+                + " with other transaction managers)")
+        .append('\n');
+    if (state.containsKey("delivery_mode")) {
+      summary.append("Delivery mode: ").append(state.getString("delivery_mode")).append('\n');
+    }
+    // tpmC is the number of completed new-order transactions per minute, which include the ones
+    // rolled back as the specification requires
+    long newOrderCompleted = TpccSpec.getCompleted(stats.getJsonObject("NewOrder"));
+    summary.append(String.format("tpmC: %.2f\n", newOrderCompleted * 60 / runForSec));
+    return summary.toString();
+  }
+
+  private static double perTransaction(long count, long completed) {
+    return completed > 0 ? (double) count / completed : 0.0;
+  }
+
+  private String summarizeItemLookups(JsonObject state) {
+    if (!state.containsKey(TpccBench.ITEM_LOOKUPS)) {
+      return "";
+    }
+
+    JsonObject lookups = state.getJsonObject(TpccBench.ITEM_LOOKUPS);
+    long attempts = lookups.getJsonNumber("attempts").longValue();
+    if (attempts == 0) {
+      return "";
+    }
+    double attemptNanos = lookups.getJsonNumber("attempt_nanos").doubleValue();
+    double lookupNanos = lookups.getJsonNumber("lookup_nanos").doubleValue();
+    double lookupShare = attemptNanos > 0 ? lookupNanos * 100 / attemptNanos : 0.0;
+    long itemReads = lookups.getJsonNumber("item_reads").longValue();
+    return "==== Item Lookup Details ====\n"
+        + "Item cache: "
+        + (state.getBoolean(TpccSpec.ITEM_CACHE, false) ? "enabled" : "disabled")
+        + "\n"
+        + String.format(
+            "Item lookup time per NewOrder attempt: %.3f ms (%.2f%% of the attempt)\n",
+            lookupNanos / attempts / 1000000.0, lookupShare)
+        + String.format(
+            "Items in the read set per NewOrder attempt: %.2f\n", (double) itemReads / attempts);
+  }
+
+  private String summarizeStockReads(JsonObject state) {
+    if (!state.containsKey(TpccBench.STOCK_READS)) {
+      return "";
+    }
+
+    JsonObject reads = state.getJsonObject(TpccBench.STOCK_READS);
+    long attempts = reads.getJsonNumber("attempts").longValue();
+    if (attempts == 0) {
+      return "";
+    }
+    double readCount = reads.getJsonNumber("reads").doubleValue() / attempts;
+    double waits = reads.getJsonNumber("waits").doubleValue() / attempts;
+    return "==== Stock Read Details ====\n"
+        + "Stock read batch size: "
+        + state.getInt("stock_read_batch_size", 1)
+        + "\n"
+        + String.format(
+            "Stock reads per StockLevel attempt: %.2f, sequential waits: %.2f, "
+                + "sequential waits avoided: %.2f\n",
+            readCount, waits, readCount - waits)
+        + "(each stock read is still a round trip, so no round trips are saved)\n";
   }
 
   @Override
@@ -0,0 +1,184 @@
+package com.scalar.db.benchmarks.tpcc;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.json.JsonObject;
+
+/**
+ * The terminal timing and the validity rules of the TPC-C specification. In the spec mode, a
+ * terminal waits for the keying time of a transaction type before it starts the transaction, and
+ * for a think time after the transaction finishes. The think time follows a negative exponential
+ * distribution truncated at 10 times its mean. The response time of a transaction doesn't include
+ * these waits.
+ *
+ * <p>A run is valid if the 90th percentile response time of each transaction type is within its
+ * limit, 90% of the deferred deliveries complete within 80 seconds of being queued, the mix of the
+ * completed transactions satisfies the minimum percentages, the terminals are bound to warehouses,
+ * the items are read in the transactions, and the tpmC doesn't exceed the maximum that the keying
+ * and think times allow. Only then is the tpmC reported as compliant. A
+ * completed transaction is either committed or rolled back as the specification requires.
+ */
+public class TpccSpec {
+  static final String SPEC_MODE = "spec_mode";
+  static final String NUM_WAREHOUSES = "num_warehouses";
+  static final String TERMINAL_BINDING = "terminal_binding";
+  static final String ITEM_CACHE = "item_cache";
+  // the maximum tpmC per warehouse with the minimum mean cycle time of a terminal
+  private static final double MAX_TPMC_PER_WAREHOUSE = 12.86;
+  private static final int THINK_TIME_TRUNCATION = 10;
+  private static final long MAX_DEFERRED_DELIVERY_P90_SEC = 80;
+  private static final String DEFERRED_DELIVERY_COMPLETION =
+      "Delivery" + TpccBench.COMPLETION_SUFFIX;
+  private static final Map<String, Timing> TIMINGS =
+      ImmutableMap.<String, Timing>builder()
+          .put("NewOrder", new Timing(18, 12, 5, 0))
+          .put("Payment", new Timing(3, 12, 5, 43))
+          .put("OrderStatus", new Timing(2, 10, 5, 4))
+          .put("Delivery", new Timing(2, 5, 5, 4))
+          .put("StockLevel", new Timing(2, 5, 20, 4))
+          .build();
+
+  private TpccSpec() {}
+
+  /**
+   * Waits for the keying time of a transaction.
+   *
+   * @param name the name of the transaction type
+   */
+  public static void keying(String name) {
+    Uninterruptibles.sleepUninterruptibly(TIMINGS.get(name).keyingSec, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Waits for a random think time after a transaction.
+   *
+   * @param name the name of the transaction type
+   */
+  public static void think(String name) {
+    long meanMillis = TimeUnit.SECONDS.toMillis(TIMINGS.get(name).meanThinkSec);
+    double u = 1.0 - ThreadLocalRandom.current().nextDouble();
+    long thinkMillis =
+        Math.min(Math.round(-Math.log(u) * meanMillis), meanMillis * THINK_TIME_TRUNCATION);
+    Uninterruptibles.sleepUninterruptibly(thinkMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks the validity of a run in the spec mode and creates a summary of it.
+   *
+   * @param state a {@code JsonObject} of the state of {@code TpccBench}
+   * @param runForSec the length of the measurement period
+   * @return a summary, or an empty {@code String} if the spec mode was not used
+   */
+  public static String validate(JsonObject state, double runForSec) {
+    if (state == null
+        || !state.getBoolean(SPEC_MODE, false)
+        || !state.containsKey(TpccBench.TRANSACTION_STATS)) {
+      return "";
+    }
+
+    JsonObject stats = state.getJsonObject(TpccBench.TRANSACTION_STATS);
+    JsonObject latencies =
+        state.containsKey(LatencyRecorder.STATE_NAME)
+            ? state.getJsonObject(LatencyRecorder.STATE_NAME)
+            : null;
+    long totalCompleted = 0;
+    for (String name : TpccBench.TRANSACTION_NAMES) {
+      totalCompleted += getCompleted(stats.getJsonObject(name));
+    }
+
+    List<String> violations = new ArrayList<>();
+    StringBuilder summary = new StringBuilder("==== TPC-C Specification Compliance ====\n");
+    for (String name : TpccBench.TRANSACTION_NAMES) {
+      Timing timing = TIMINGS.get(name);
+      long completed = getCompleted(stats.getJsonObject(name));
+      double mix = totalCompleted > 0 ? completed * 100.0 / totalCompleted : 0.0;
+      double p90Millis = getP90Millis(latencies, name);
+      long limitMillis = TimeUnit.SECONDS.toMillis(timing.maxP90Sec);
+      summary.append(
+          String.format(
+              "%s: p90=%.3f ms (limit %d ms), mix=%.2f%% (minimum %d%%)\n",
+              name, p90Millis, limitMillis, mix, timing.minMixPercent));
+      if (p90Millis > limitMillis) {
+        violations.add(name + " exceeded the 90th percentile response time limit");
+      }
+      if (mix < timing.minMixPercent) {
+        violations.add(name + " was below the minimum mix percentage");
+      }
+    }
+
+    if (state.containsKey(DeferredDelivery.STATE_NAME)) {
+      double p90Millis = getP90Millis(latencies, DEFERRED_DELIVERY_COMPLETION);
+      long limitMillis = TimeUnit.SECONDS.toMillis(MAX_DEFERRED_DELIVERY_P90_SEC);
+      summary.append(
+          String.format(
+              "Deferred Delivery: completion p90=%.3f ms (limit %d ms)\n",
+              p90Millis, limitMillis));
+      if (p90Millis > limitMillis) {
+        violations.add("the deferred deliveries exceeded the 90th percentile completion limit");
+      }
+    }
+
+    double tpmC = getCompleted(stats.getJsonObject("NewOrder")) * 60 / runForSec;
+    int numWarehouses = state.getInt(NUM_WAREHOUSES, 0);
+    if (tpmC > MAX_TPMC_PER_WAREHOUSE * numWarehouses) {
+      violations.add(
+          String.format(
+              "tpmC exceeded %.2f per warehouse for %d warehouses",
+              MAX_TPMC_PER_WAREHOUSE, numWarehouses));
+    }
+    if (!state.getBoolean(TERMINAL_BINDING, false)) {
+      violations.add("the terminals were not bound to warehouses");
+    }
+    if (state.getBoolean(ITEM_CACHE, false)) {
+      violations.add("the items were read from the client-side cache");
+    }
+
+    if (violations.isEmpty()) {
+      summary.append("Result: valid\n").append(String.format("Compliant tpmC: %.2f\n", tpmC));
+    } else {
+      summary.append("Result: invalid\n");
+      violations.forEach(v -> summary.append("  - ").append(v).append('\n'));
+      summary.append("Compliant tpmC: N/A\n");
+    }
+    return summary.toString();
+  }
+
+  private static double getP90Millis(@Nullable JsonObject latencies, String name) {
+    return latencies != null && latencies.containsKey(name)
+        ? latencies.getJsonObject(name).getJsonNumber("p90").doubleValue() / 1000.0
+        : 0.0;
+  }
+
+  /**
+   * Returns the number of the completed transactions of a type.
+   *
+   * @param counts a {@code JsonObject} of the counters of a transaction type
+   * @return the number of the committed and rolled-back transactions
+   */
+  static long getCompleted(JsonObject counts) {
+    return counts.getJsonNumber("commit").longValue()
+        + counts.getJsonNumber("rollback").longValue();
+  }
+
+  /** The timing requirements of a transaction type. */
+  private static class Timing {
+    private final long keyingSec;
+    private final long meanThinkSec;
+    private final long maxP90Sec;
+    private final int minMixPercent;
+
+    Timing(long keyingSec, long meanThinkSec, long maxP90Sec, int minMixPercent) {
+      this.keyingSec = keyingSec;
+      this.meanThinkSec = meanThinkSec;
+      this.maxP90Sec = maxP90Sec;
+      this.minMixPercent = minMixPercent;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package com.scalar.db.benchmarks.tpcc;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
 import com.scalar.db.benchmarks.tpcc.table.Customer;
 import com.scalar.db.benchmarks.tpcc.table.CustomerSecondary;
 import com.scalar.db.benchmarks.tpcc.table.District;
@@ -27,6 +28,8 @@ public class TpccUtil {
    * Returns a customer ID by scanning Customer table using secondary index.
    *
    * @param tx a {@code DistributedTransaction} object
+   * @param counter a {@code ScanCounter} of the transaction
+   * @param narrowScans whether or not to fetch only the columns to locate the customer
    * @param warehouseId a warehouse ID
    * @param districtId a district ID
    * @param customerLastName a {@code String} of customer last name
@@ -34,9 +37,19 @@ public class TpccUtil {
    * @throws TransactionException if the scan failed
    */
   public static int getCustomerIdBySecondaryIndex(
-      DistributedTransaction tx, int warehouseId, int districtId, String customerLastName)
+      DistributedTransaction tx,
+      ScanCounter counter,
+      boolean narrowScans,
+      int warehouseId,
+      int districtId,
+      String customerLastName)
       throws TransactionException {
-    List<Result> results = tx.scan(Customer.createScan(warehouseId, districtId, customerLastName));
+    Scan scan =
+        narrowScans
+            ? Customer.createIdScan(warehouseId, districtId, customerLastName)
+            : Customer.createScan(warehouseId, districtId, customerLastName);
+    List<Result> results = counter.scan(tx, scan);
+    // an index scan can't be ordered, so the customers are sorted here
     results.sort(Customer.FIRST_NAME_COMPARATOR);
     int offset = (results.size() + 1) / 2 - 1; // locate midpoint customer
     return results.get(offset).getValue(Customer.KEY_ID).get().getAsInt();
@@ -46,6 +59,8 @@ public class TpccUtil {
    * Returns a customer ID by scanning CustomerSecondary table.
    *
    * @param tx a {@code DistributedTransaction} object
+   * @param counter a {@code ScanCounter} of the transaction
+   * @param narrowScans whether or not to fetch only the customer IDs
    * @param warehouseId a warehouse ID
    * @param districtId a district ID
    * @param customerLastName a {@code String} of customer last name
@@ -53,10 +68,19 @@ public class TpccUtil {
    * @throws TransactionException if the scan failed
    */
   public static int getCustomerIdByTableIndex(
-      DistributedTransaction tx, int warehouseId, int districtId, String customerLastName)
+      DistributedTransaction tx,
+      ScanCounter counter,
+      boolean narrowScans,
+      int warehouseId,
+      int districtId,
+      String customerLastName)
       throws TransactionException {
-    List<Result> results =
-        tx.scan(CustomerSecondary.createScan(warehouseId, districtId, customerLastName));
+    // the customers are clustered by their first names, so they don't need to be sorted
+    Scan scan =
+        narrowScans
+            ? CustomerSecondary.createIdScan(warehouseId, districtId, customerLastName)
+            : CustomerSecondary.createScan(warehouseId, districtId, customerLastName);
+    List<Result> results = counter.scan(tx, scan);
     int offset = (results.size() + 1) / 2 - 1; // locate midpoint customer
     return results.get(offset).getValue(CustomerSecondary.KEY_CUSTOMER_ID).get().getAsInt();
   }
@@ -1,9 +1,6 @@
 package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
-import com.scalar.db.io.TextValue;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
 
 public class Address {
 
@@ -49,17 +46,48 @@ public class Address {
   }
 
   /**
-   * Creates an {@code ArrayList} of {@code Value<?>}.
+   * Returns the value of the specified address column.
    *
-   * @return an {@code ArrayList} of {@code Value<?>}
+   * @param name a column name including the column prefix
+   * @return the value of the column, or {@code null} if it isn't an address column
    */
-  public ArrayList<Value<?>> createValues() {
-    ArrayList<Value<?>> values = new ArrayList<>();
-    values.add(new TextValue(columnPrefix + KEY_STREET_1, street1));
-    values.add(new TextValue(columnPrefix + KEY_STREET_2, street2));
-    values.add(new TextValue(columnPrefix + KEY_CITY, city));
-    values.add(new TextValue(columnPrefix + KEY_STATE, state));
-    values.add(new TextValue(columnPrefix + KEY_ZIP, zip));
-    return values;
+  public String getColumn(String name) {
+    if (!name.startsWith(columnPrefix)) {
+      return null;
+    }
+    switch (name.substring(columnPrefix.length())) {
+      case KEY_STREET_1:
+        return street1;
+      case KEY_STREET_2:
+        return street2;
+      case KEY_CITY:
+        return city;
+      case KEY_STATE:
+        return state;
+      case KEY_ZIP:
+        return zip;
+      default:
+        return null;
+    }
+  }
+
+  public String getStreet1() {
+    return street1;
+  }
+
+  public String getStreet2() {
+    return street2;
+  }
+
+  public String getCity() {
+    return city;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public String getZip() {
+    return zip;
   }
 }
@@ -2,19 +2,16 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class Customer extends TpccRecord {
@@ -59,6 +56,33 @@ public class Customer extends TpccRecord {
         return firstNameA.compareTo(firstNameB);
       };
 
+  /** Columns written by {@link #createPut()}. */
+  private enum Type {
+    ALL,
+    PAYMENT,
+    DELIVERY
+  }
+
+  private final Type type;
+  private final int warehouseId;
+  private final int districtId;
+  private final int customerId;
+  private final String first;
+  private final String middle;
+  private final String last;
+  private final double discount;
+  private final String credit;
+  private final double creditLimit;
+  private final double balance;
+  private final double ytdPayment;
+  private final int paymentCount;
+  private final int deliveryCount;
+  private final Address address;
+  private final String phone;
+  private final Date since;
+  private final String data;
+  private String index;
+
   /**
    * Constructs a {@code Customer} for payment transaction.
    *
@@ -78,29 +102,47 @@ public class Customer extends TpccRecord {
       double ytdPayment,
       int paymentCount,
       String data) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-    partitionKeyMap.put(KEY_ID, customerId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_BALANCE, balance);
-    valueMap.put(KEY_YTD_PAYMENT, ytdPayment);
-    valueMap.put(KEY_PAYMENT_CNT, paymentCount);
-    valueMap.put(KEY_DATA, data);
+    this.type = Type.PAYMENT;
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.customerId = customerId;
+    this.first = null;
+    this.middle = null;
+    this.last = null;
+    this.discount = 0;
+    this.credit = null;
+    this.creditLimit = 0;
+    this.balance = balance;
+    this.ytdPayment = ytdPayment;
+    this.paymentCount = paymentCount;
+    this.deliveryCount = 0;
+    this.address = null;
+    this.phone = null;
+    this.since = null;
+    this.data = data;
   }
 
   /** Constructs a {@code Customer} for delivery transaction. */
   public Customer(
       int warehouseId, int districtId, int customerId, double balance, int deliveryCount) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-    partitionKeyMap.put(KEY_ID, customerId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_BALANCE, balance);
-    valueMap.put(KEY_DELIVERY_CNT, deliveryCount);
+    this.type = Type.DELIVERY;
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.customerId = customerId;
+    this.first = null;
+    this.middle = null;
+    this.last = null;
+    this.discount = 0;
+    this.credit = null;
+    this.creditLimit = 0;
+    this.balance = balance;
+    this.ytdPayment = 0;
+    this.paymentCount = 0;
+    this.deliveryCount = deliveryCount;
+    this.address = null;
+    this.phone = null;
+    this.since = null;
+    this.data = null;
   }
 
   /**
@@ -111,34 +153,32 @@ public class Customer extends TpccRecord {
    * @param customerId a customer ID
    */
   public Customer(int warehouseId, int districtId, int customerId, Date date) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-    partitionKeyMap.put(KEY_ID, customerId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_FIRST, TpccUtil.randomAlphaString(MIN_FIRST, MAX_FIRST));
-    valueMap.put(KEY_MIDDLE, "OE");
+    this.type = Type.ALL;
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.customerId = customerId;
+    this.first = TpccUtil.randomAlphaString(MIN_FIRST, MAX_FIRST);
+    this.middle = "OE";
     if (customerId <= 1000) {
-      valueMap.put(KEY_LAST, TpccUtil.getLastName(customerId - 1));
+      this.last = TpccUtil.getLastName(customerId - 1);
     } else {
-      valueMap.put(KEY_LAST, TpccUtil.getNonUniformRandomLastNameForLoad());
+      this.last = TpccUtil.getNonUniformRandomLastNameForLoad();
     }
-    valueMap.put(KEY_DISCOUNT, TpccUtil.randomDouble(0, 5000, 10000));
+    this.discount = TpccUtil.randomDouble(0, 5000, 10000);
     if (TpccUtil.randomInt(0, 99) < 10) {
-      valueMap.put(KEY_CREDIT, "BC");
+      this.credit = "BC";
     } else {
-      valueMap.put(KEY_CREDIT, "GC");
+      this.credit = "GC";
     }
-    valueMap.put(KEY_CREDIT_LIM, 50000.00);
-    valueMap.put(KEY_BALANCE, 10.00);
-    valueMap.put(KEY_YTD_PAYMENT, 10.00);
-    valueMap.put(KEY_PAYMENT_CNT, 1);
-    valueMap.put(KEY_DELIVERY_CNT, 0);
-    valueMap.put(KEY_ADDRESS, new Address(COLUMN_PREFIX));
-    valueMap.put(KEY_PHONE, TpccUtil.randomNumberString(PHONE_SIZE));
-    valueMap.put(KEY_SINCE, date);
-    valueMap.put(KEY_DATA, TpccUtil.randomAlphaString(MIN_DATA, MAX_DATA));
+    this.creditLimit = 50000.00;
+    this.balance = 10.00;
+    this.ytdPayment = 10.00;
+    this.paymentCount = 1;
+    this.deliveryCount = 0;
+    this.address = new Address(COLUMN_PREFIX);
+    this.phone = TpccUtil.randomNumberString(PHONE_SIZE);
+    this.since = date;
+    this.data = TpccUtil.randomAlphaString(MIN_DATA, MAX_DATA);
   }
 
   /**
@@ -147,35 +187,32 @@ public class Customer extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public Customer(CSVRecord record) throws ParseException {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-    partitionKeyMap.put(KEY_ID, Integer.parseInt(record.get(KEY_ID)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_FIRST, record.get(KEY_FIRST));
-    valueMap.put(KEY_MIDDLE, record.get(KEY_MIDDLE));
-    valueMap.put(KEY_LAST, record.get(KEY_LAST));
-    valueMap.put(KEY_DISCOUNT, Double.parseDouble(record.get(KEY_DISCOUNT)));
-    valueMap.put(KEY_CREDIT, record.get(KEY_CREDIT));
-    valueMap.put(KEY_CREDIT_LIM, Double.parseDouble(record.get(KEY_CREDIT_LIM)));
-    valueMap.put(KEY_BALANCE, Double.parseDouble(record.get(KEY_BALANCE)));
-    valueMap.put(KEY_YTD_PAYMENT, Double.parseDouble(record.get(KEY_YTD_PAYMENT)));
-    valueMap.put(KEY_PAYMENT_CNT, Integer.parseInt(record.get(KEY_PAYMENT_CNT)));
-    valueMap.put(KEY_DELIVERY_CNT, Integer.parseInt(record.get(KEY_DELIVERY_CNT)));
-    valueMap.put(
-        KEY_ADDRESS,
+    this.type = Type.ALL;
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.customerId = Integer.parseInt(record.get(KEY_ID));
+    this.first = record.get(KEY_FIRST);
+    this.middle = record.get(KEY_MIDDLE);
+    this.last = record.get(KEY_LAST);
+    this.discount = Double.parseDouble(record.get(KEY_DISCOUNT));
+    this.credit = record.get(KEY_CREDIT);
+    this.creditLimit = Double.parseDouble(record.get(KEY_CREDIT_LIM));
+    this.balance = Double.parseDouble(record.get(KEY_BALANCE));
+    this.ytdPayment = Double.parseDouble(record.get(KEY_YTD_PAYMENT));
+    this.paymentCount = Integer.parseInt(record.get(KEY_PAYMENT_CNT));
+    this.deliveryCount = Integer.parseInt(record.get(KEY_DELIVERY_CNT));
+    this.address =
         new Address(
             COLUMN_PREFIX,
             record.get(KEY_STREET_1),
             record.get(KEY_STREET_2),
             record.get(KEY_CITY),
             record.get(KEY_STATE),
-            record.get(KEY_ZIP)));
-    valueMap.put(KEY_PHONE, record.get(KEY_PHONE));
-    valueMap.put(KEY_DATA, record.get(KEY_DATA));
+            record.get(KEY_ZIP));
+    this.phone = record.get(KEY_PHONE);
+    this.data = record.get(KEY_DATA);
     SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    valueMap.put(KEY_SINCE, dateFormat.parse(record.get(KEY_SINCE)));
+    this.since = dateFormat.parse(record.get(KEY_SINCE));
   }
 
   /**
@@ -187,11 +224,11 @@ public class Customer extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId, int customerId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_DISTRICT_ID, districtId));
-    keys.add(new IntValue(KEY_ID, customerId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_DISTRICT_ID, districtId)
+        .addInt(KEY_ID, customerId)
+        .build();
   }
 
   private static String createIndexString(int warehouseId, int districtId, String lastName) {
@@ -204,10 +241,24 @@ public class Customer extends TpccRecord {
    * @return a {@code Scan} object
    */
   public static Scan createScan(int warehouseId, int districtId, String lastName) {
-    Key key = new Key(KEY_INDEX, createIndexString(warehouseId, districtId, lastName));
+    Key key = Key.ofText(KEY_INDEX, createIndexString(warehouseId, districtId, lastName));
     return new Scan(key).forTable(TABLE_NAME);
   }
 
+  /**
+   * Creates a {@code Scan} object for the IDs and the first names of the customers with a last
+   * name, which are enough to locate the midpoint customer.
+   *
+   * @param warehouseId a warehouse ID
+   * @param districtId a district ID
+   * @param lastName a customer last name
+   * @return a {@code Scan} object
+   */
+  public static Scan createIdScan(int warehouseId, int districtId, String lastName) {
+    return createScan(warehouseId, districtId, lastName)
+        .withProjections(Arrays.asList(KEY_ID, KEY_FIRST));
+  }
+
   /**
    * Creates a {@code Get} object.
    *
@@ -228,25 +279,94 @@ public class Customer extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey).forTable(TABLE_NAME).withValues(values);
+    PutBuilder.Buildable put =
+        newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId, customerId))
+            .doubleValue(KEY_BALANCE, balance);
+    switch (type) {
+      case PAYMENT:
+        return put.doubleValue(KEY_YTD_PAYMENT, ytdPayment)
+            .intValue(KEY_PAYMENT_CNT, paymentCount)
+            .textValue(KEY_DATA, data)
+            .build();
+      case DELIVERY:
+        return put.intValue(KEY_DELIVERY_CNT, deliveryCount).build();
+      default:
+        put.textValue(KEY_FIRST, first)
+            .textValue(KEY_MIDDLE, middle)
+            .textValue(KEY_LAST, last)
+            .doubleValue(KEY_DISCOUNT, discount)
+            .textValue(KEY_CREDIT, credit)
+            .doubleValue(KEY_CREDIT_LIM, creditLimit)
+            .doubleValue(KEY_YTD_PAYMENT, ytdPayment)
+            .intValue(KEY_PAYMENT_CNT, paymentCount)
+            .intValue(KEY_DELIVERY_CNT, deliveryCount)
+            .textValue(KEY_STREET_1, address.getStreet1())
+            .textValue(KEY_STREET_2, address.getStreet2())
+            .textValue(KEY_CITY, address.getCity())
+            .textValue(KEY_STATE, address.getState())
+            .textValue(KEY_ZIP, address.getZip())
+            .textValue(KEY_PHONE, phone)
+            .bigIntValue(KEY_SINCE, since.getTime())
+            .textValue(KEY_DATA, data);
+        if (index != null) {
+          put.textValue(KEY_INDEX, index);
+        }
+        return put.build();
+    }
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_ID:
+        return customerId;
+      case KEY_FIRST:
+        return first;
+      case KEY_MIDDLE:
+        return middle;
+      case KEY_LAST:
+        return last;
+      case KEY_DISCOUNT:
+        return type == Type.ALL ? discount : null;
+      case KEY_CREDIT:
+        return credit;
+      case KEY_CREDIT_LIM:
+        return type == Type.ALL ? creditLimit : null;
+      case KEY_BALANCE:
+        return balance;
+      case KEY_YTD_PAYMENT:
+        return type != Type.DELIVERY ? ytdPayment : null;
+      case KEY_PAYMENT_CNT:
+        return type != Type.DELIVERY ? paymentCount : null;
+      case KEY_DELIVERY_CNT:
+        return type != Type.PAYMENT ? deliveryCount : null;
+      case KEY_PHONE:
+        return phone;
+      case KEY_SINCE:
+        return since;
+      case KEY_DATA:
+        return data;
+      case KEY_INDEX:
+        return index;
+      default:
+        return address == null ? null : address.getColumn(column);
+    }
   }
 
   /** Builds a column for secondary index. */
   public void buildIndexColumn() {
-    int warehouseId = (int) partitionKeyMap.get(KEY_WAREHOUSE_ID);
-    int districtId = (int) partitionKeyMap.get(KEY_DISTRICT_ID);
-    String lastName = (String) valueMap.get(KEY_LAST);
-    String index = createIndexString(warehouseId, districtId, lastName);
-    valueMap.put(KEY_INDEX, index);
+    index = createIndexString(warehouseId, districtId, last);
   }
 
   public String getFirstName() {
-    return (String) valueMap.get(KEY_FIRST);
+    return first;
   }
 
   public String getLastName() {
-    return (String) valueMap.get(KEY_LAST);
+    return last;
   }
 }
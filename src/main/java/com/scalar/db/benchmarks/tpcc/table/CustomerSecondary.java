@@ -2,12 +2,7 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Put;
 import com.scalar.db.api.Scan;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.TextValue;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class CustomerSecondary extends TpccRecord {
@@ -20,6 +15,12 @@ public class CustomerSecondary extends TpccRecord {
   public static final String KEY_FIRST = "c_first";
   public static final String KEY_CUSTOMER_ID = "c_id";
 
+  private final int warehouseId;
+  private final int districtId;
+  private final String last;
+  private final String first;
+  private final int customerId;
+
   /**
    * Constructs a {@code CustomerSecondary}.
    *
@@ -31,14 +32,11 @@ public class CustomerSecondary extends TpccRecord {
    */
   public CustomerSecondary(
       int warehouseId, int districtId, String last, String first, int customerId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-    partitionKeyMap.put(KEY_LAST, last);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_FIRST, first);
-    clusteringKeyMap.put(KEY_CUSTOMER_ID, customerId);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.last = last;
+    this.first = first;
+    this.customerId = customerId;
   }
 
   /**
@@ -47,14 +45,11 @@ public class CustomerSecondary extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public CustomerSecondary(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-    partitionKeyMap.put(KEY_LAST, record.get(KEY_LAST));
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_FIRST, record.get(KEY_FIRST));
-    clusteringKeyMap.put(KEY_CUSTOMER_ID, Integer.parseInt(record.get(KEY_CUSTOMER_ID)));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.last = record.get(KEY_LAST);
+    this.first = record.get(KEY_FIRST);
+    this.customerId = Integer.parseInt(record.get(KEY_CUSTOMER_ID));
   }
 
   /**
@@ -66,11 +61,11 @@ public class CustomerSecondary extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId, String lastName) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_DISTRICT_ID, districtId));
-    keys.add(new TextValue(KEY_LAST, lastName));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_DISTRICT_ID, districtId)
+        .addText(KEY_LAST, lastName)
+        .build();
   }
 
   /**
@@ -81,10 +76,10 @@ public class CustomerSecondary extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createClusteringKey(String firstName, int customerId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new TextValue(KEY_FIRST, firstName));
-    keys.add(new IntValue(KEY_CUSTOMER_ID, customerId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addText(KEY_FIRST, firstName)
+        .addInt(KEY_CUSTOMER_ID, customerId)
+        .build();
   }
 
   /**
@@ -94,9 +89,27 @@ public class CustomerSecondary extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    Key clusteringKey = createClusteringKey();
-    return new Put(partitionKey, clusteringKey).forTable(TABLE_NAME);
+    return newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId, last))
+        .clusteringKey(createClusteringKey(first, customerId))
+        .build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_LAST:
+        return last;
+      case KEY_FIRST:
+        return first;
+      case KEY_CUSTOMER_ID:
+        return customerId;
+      default:
+        return null;
+    }
   }
 
   /**
@@ -108,4 +121,17 @@ public class CustomerSecondary extends TpccRecord {
     Key partitionKey = createPartitionKey(warehouseId, districtId, lastName);
     return new Scan(partitionKey).forTable(TABLE_NAME);
   }
+
+  /**
+   * Creates a {@code Scan} object for the IDs of the customers with a last name in the order of
+   * their first names.
+   *
+   * @param warehouseId a warehouse ID
+   * @param districtId a district ID
+   * @param lastName a customer last name
+   * @return a {@code Scan} object
+   */
+  public static Scan createIdScan(int warehouseId, int districtId, String lastName) {
+    return createScan(warehouseId, districtId, lastName).withProjection(KEY_CUSTOMER_ID);
+  }
 }
@@ -2,13 +2,9 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class District extends TpccRecord {
@@ -33,6 +29,22 @@ public class District extends TpccRecord {
   public static final int MIN_NAME = 6;
   public static final int MAX_NAME = 10;
 
+  /** Columns written by {@link #createPut()}. */
+  private enum Type {
+    ALL,
+    YTD,
+    NEXT_ORDER_ID
+  }
+
+  private final Type type;
+  private final int warehouseId;
+  private final int districtId;
+  private final String name;
+  private final Address address;
+  private final double tax;
+  private final double ytd;
+  private final int nextOrderId;
+
   /**
    * Constructs a {@code District} with ytd.
    *
@@ -41,12 +53,14 @@ public class District extends TpccRecord {
    * @param ytd a YTD balance
    */
   public District(int warehouseId, int districtId, double ytd) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_ID, districtId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_YTD, ytd);
+    this.type = Type.YTD;
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.name = null;
+    this.address = null;
+    this.tax = 0;
+    this.ytd = ytd;
+    this.nextOrderId = 0;
   }
 
   /**
@@ -57,12 +71,14 @@ public class District extends TpccRecord {
    * @param nextOrderId a next order ID
    */
   public District(int warehouseId, int districtId, int nextOrderId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_ID, districtId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NEXT_O_ID, nextOrderId);
+    this.type = Type.NEXT_ORDER_ID;
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.name = null;
+    this.address = null;
+    this.tax = 0;
+    this.ytd = 0;
+    this.nextOrderId = nextOrderId;
   }
 
   /**
@@ -72,16 +88,14 @@ public class District extends TpccRecord {
    * @param districtId a district ID
    */
   public District(int warehouseId, int districtId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_ID, districtId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NAME, TpccUtil.randomAlphaString(MIN_NAME, MAX_NAME));
-    valueMap.put(KEY_ADDRESS, new Address(COLUMN_PREFIX));
-    valueMap.put(KEY_TAX, TpccUtil.randomDouble(0, 2000, 10000));
-    valueMap.put(KEY_YTD, 30000.00);
-    valueMap.put(KEY_NEXT_O_ID, 3001);
+    this.type = Type.ALL;
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.name = TpccUtil.randomAlphaString(MIN_NAME, MAX_NAME);
+    this.address = new Address(COLUMN_PREFIX);
+    this.tax = TpccUtil.randomDouble(0, 2000, 10000);
+    this.ytd = 30000.00;
+    this.nextOrderId = 3001;
   }
 
   /**
@@ -90,24 +104,21 @@ public class District extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public District(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_ID, Integer.parseInt(record.get(KEY_ID)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NAME, record.get(KEY_NAME));
-    valueMap.put(
-        KEY_ADDRESS,
+    this.type = Type.ALL;
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_ID));
+    this.name = record.get(KEY_NAME);
+    this.address =
         new Address(
             COLUMN_PREFIX,
             record.get(KEY_STREET_1),
             record.get(KEY_STREET_2),
             record.get(KEY_CITY),
             record.get(KEY_STATE),
-            record.get(KEY_ZIP)));
-    valueMap.put(KEY_TAX, Double.parseDouble(record.get(KEY_TAX)));
-    valueMap.put(KEY_YTD, Double.parseDouble(record.get(KEY_YTD)));
-    valueMap.put(KEY_NEXT_O_ID, Integer.parseInt(record.get(KEY_NEXT_O_ID)));
+            record.get(KEY_ZIP));
+    this.tax = Double.parseDouble(record.get(KEY_TAX));
+    this.ytd = Double.parseDouble(record.get(KEY_YTD));
+    this.nextOrderId = Integer.parseInt(record.get(KEY_NEXT_O_ID));
   }
 
   /**
@@ -118,10 +129,10 @@ public class District extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_ID, districtId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_ID, districtId)
+        .build();
   }
 
   /**
@@ -143,8 +154,43 @@ public class District extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey).forTable(TABLE_NAME).withValues(values);
+    PutBuilder.Buildable put = newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId));
+    switch (type) {
+      case YTD:
+        return put.doubleValue(KEY_YTD, ytd).build();
+      case NEXT_ORDER_ID:
+        return put.intValue(KEY_NEXT_O_ID, nextOrderId).build();
+      default:
+        return put.textValue(KEY_NAME, name)
+            .textValue(KEY_STREET_1, address.getStreet1())
+            .textValue(KEY_STREET_2, address.getStreet2())
+            .textValue(KEY_CITY, address.getCity())
+            .textValue(KEY_STATE, address.getState())
+            .textValue(KEY_ZIP, address.getZip())
+            .doubleValue(KEY_TAX, tax)
+            .doubleValue(KEY_YTD, ytd)
+            .intValue(KEY_NEXT_O_ID, nextOrderId)
+            .build();
+    }
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_ID:
+        return districtId;
+      case KEY_NAME:
+        return name;
+      case KEY_TAX:
+        return type == Type.ALL ? tax : null;
+      case KEY_YTD:
+        return type != Type.NEXT_ORDER_ID ? ytd : null;
+      case KEY_NEXT_O_ID:
+        return type != Type.YTD ? nextOrderId : null;
+      default:
+        return address == null ? null : address.getColumn(column);
+    }
   }
 }
@@ -3,13 +3,9 @@ package com.scalar.db.benchmarks.tpcc.table;
 import com.scalar.db.api.Put;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.UUID;
 import org.apache.commons.csv.CSVRecord;
 
@@ -30,6 +26,16 @@ public class History extends TpccRecord {
   public static final int MIN_DATA = 12;
   public static final int MAX_DATA = 24;
 
+  private final String id;
+  private final int customerId;
+  private final int customerDistrictId;
+  private final int customerWarehouseId;
+  private final int districtId;
+  private final int warehouseId;
+  private final Date date;
+  private final double amount;
+  private final String data;
+
   /**
    * Constructs a {@code Customer} with specified parameters.
    *
@@ -51,18 +57,15 @@ public class History extends TpccRecord {
       Date date,
       double amount,
       String data) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, UUID.randomUUID().toString());
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CUSTOMER_ID, customerId);
-    valueMap.put(KEY_CUSTOMER_DID, customerDistrictId);
-    valueMap.put(KEY_CUSTOMER_WID, customerWarehouseId);
-    valueMap.put(KEY_DISTRICT_ID, districtId);
-    valueMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    valueMap.put(KEY_DATE, date);
-    valueMap.put(KEY_AMOUNT, amount);
-    valueMap.put(KEY_DATA, data);
+    this.id = UUID.randomUUID().toString();
+    this.customerId = customerId;
+    this.customerDistrictId = customerDistrictId;
+    this.customerWarehouseId = customerWarehouseId;
+    this.districtId = districtId;
+    this.warehouseId = warehouseId;
+    this.date = date;
+    this.amount = amount;
+    this.data = data;
   }
 
   /**
@@ -82,18 +85,15 @@ public class History extends TpccRecord {
       int districtId,
       int warehouseId,
       Date date) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, UUID.randomUUID().toString());
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CUSTOMER_ID, customerId);
-    valueMap.put(KEY_CUSTOMER_DID, customerDistrictId);
-    valueMap.put(KEY_CUSTOMER_WID, customerWarehouseId);
-    valueMap.put(KEY_DISTRICT_ID, districtId);
-    valueMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    valueMap.put(KEY_DATE, date);
-    valueMap.put(KEY_AMOUNT, 10.00);
-    valueMap.put(KEY_DATA, TpccUtil.randomAlphaString(MIN_DATA, MAX_DATA));
+    this(
+        customerId,
+        customerDistrictId,
+        customerWarehouseId,
+        districtId,
+        warehouseId,
+        date,
+        10.00,
+        TpccUtil.randomAlphaString(MIN_DATA, MAX_DATA));
   }
 
   /**
@@ -102,19 +102,16 @@ public class History extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public History(CSVRecord record) throws ParseException {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, UUID.randomUUID().toString());
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CUSTOMER_ID, Integer.parseInt(record.get(KEY_CUSTOMER_ID)));
-    valueMap.put(KEY_CUSTOMER_DID, Integer.parseInt(record.get(KEY_CUSTOMER_DID)));
-    valueMap.put(KEY_CUSTOMER_WID, Integer.parseInt(record.get(KEY_CUSTOMER_WID)));
-    valueMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-    valueMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
+    this.id = UUID.randomUUID().toString();
+    this.customerId = Integer.parseInt(record.get(KEY_CUSTOMER_ID));
+    this.customerDistrictId = Integer.parseInt(record.get(KEY_CUSTOMER_DID));
+    this.customerWarehouseId = Integer.parseInt(record.get(KEY_CUSTOMER_WID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
     SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    valueMap.put(KEY_DATE, dateFormat.parse(record.get(KEY_DATE)));
-    valueMap.put(KEY_AMOUNT, Double.parseDouble(record.get(KEY_AMOUNT)));
-    valueMap.put(KEY_DATA, record.get(KEY_DATA));
+    this.date = dateFormat.parse(record.get(KEY_DATE));
+    this.amount = Double.parseDouble(record.get(KEY_AMOUNT));
+    this.data = record.get(KEY_DATA);
   }
 
   /**
@@ -124,8 +121,41 @@ public class History extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey).forTable(TABLE_NAME).withValues(values);
+    return newPut(TABLE_NAME, Key.ofText(KEY_ID, id))
+        .intValue(KEY_CUSTOMER_ID, customerId)
+        .intValue(KEY_CUSTOMER_DID, customerDistrictId)
+        .intValue(KEY_CUSTOMER_WID, customerWarehouseId)
+        .intValue(KEY_DISTRICT_ID, districtId)
+        .intValue(KEY_WAREHOUSE_ID, warehouseId)
+        .bigIntValue(KEY_DATE, date.getTime())
+        .doubleValue(KEY_AMOUNT, amount)
+        .textValue(KEY_DATA, data)
+        .build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_ID:
+        return id;
+      case KEY_CUSTOMER_ID:
+        return customerId;
+      case KEY_CUSTOMER_DID:
+        return customerDistrictId;
+      case KEY_CUSTOMER_WID:
+        return customerWarehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DATE:
+        return date;
+      case KEY_AMOUNT:
+        return amount;
+      case KEY_DATA:
+        return data;
+      default:
+        return null;
+    }
   }
 }
@@ -2,12 +2,11 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.Scan;
+import com.scalar.db.api.ScanAll;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import org.apache.commons.csv.CSVRecord;
 
 public class Item extends TpccRecord {
@@ -27,20 +26,23 @@ public class Item extends TpccRecord {
   public static final int MAX_DATA = 50;
   public static final int UNUSED_ID = 1;
 
+  private final int itemId;
+  private final String name;
+  private final double price;
+  private final String data;
+  private final int imageId;
+
   /**
    * Constructs a {@code Item} with data generation.
    *
    * @param itemId an item ID
    */
   public Item(int itemId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, itemId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NAME, TpccUtil.randomAlphaString(MIN_NAME, MAX_NAME));
-    valueMap.put(KEY_PRICE, TpccUtil.randomDouble(100, 1000, 100));
-    valueMap.put(KEY_DATA, TpccUtil.getRandomStringWithOriginal(MIN_DATA, MAX_DATA, 10));
-    valueMap.put(KEY_IM_ID, TpccUtil.randomInt(1, 10000));
+    this.itemId = itemId;
+    this.name = TpccUtil.randomAlphaString(MIN_NAME, MAX_NAME);
+    this.price = TpccUtil.randomDouble(100, 1000, 100);
+    this.data = TpccUtil.getRandomStringWithOriginal(MIN_DATA, MAX_DATA, 10);
+    this.imageId = TpccUtil.randomInt(1, 10000);
   }
 
   /**
@@ -49,14 +51,11 @@ public class Item extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public Item(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, Integer.parseInt(record.get(KEY_ID)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NAME, record.get(KEY_NAME));
-    valueMap.put(KEY_PRICE, Double.parseDouble(record.get(KEY_PRICE)));
-    valueMap.put(KEY_DATA, record.get(KEY_DATA));
-    valueMap.put(KEY_IM_ID, Integer.parseInt(record.get(KEY_IM_ID)));
+    this.itemId = Integer.parseInt(record.get(KEY_ID));
+    this.name = record.get(KEY_NAME);
+    this.price = Double.parseDouble(record.get(KEY_PRICE));
+    this.data = record.get(KEY_DATA);
+    this.imageId = Integer.parseInt(record.get(KEY_IM_ID));
   }
 
   /**
@@ -66,7 +65,7 @@ public class Item extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int itemId) {
-    return new Key(KEY_ID, itemId);
+    return Key.ofInt(KEY_ID, itemId);
   }
 
   /**
@@ -80,6 +79,17 @@ public class Item extends TpccRecord {
     return new Get(partitionKey).forTable(TABLE_NAME);
   }
 
+  /**
+   * Creates a {@code Scan} object for all the items with their IDs, names and prices.
+   *
+   * @return a {@code Scan} object
+   */
+  public static Scan createScanAll() {
+    return new ScanAll()
+        .forTable(TABLE_NAME)
+        .withProjections(Arrays.asList(KEY_ID, KEY_NAME, KEY_PRICE));
+  }
+
   /**
    * Creates a {@code Put} object.
    *
@@ -87,8 +97,29 @@ public class Item extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey).forTable(TABLE_NAME).withValues(values);
+    return newPut(TABLE_NAME, createPartitionKey(itemId))
+        .textValue(KEY_NAME, name)
+        .doubleValue(KEY_PRICE, price)
+        .textValue(KEY_DATA, data)
+        .intValue(KEY_IM_ID, imageId)
+        .build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_ID:
+        return itemId;
+      case KEY_NAME:
+        return name;
+      case KEY_PRICE:
+        return price;
+      case KEY_DATA:
+        return data;
+      case KEY_IM_ID:
+        return imageId;
+      default:
+        return null;
+    }
   }
 }
@@ -4,11 +4,7 @@ import com.scalar.db.api.Delete;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.Scan;
 import com.scalar.db.api.Scan.Ordering;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class NewOrder extends TpccRecord {
@@ -20,6 +16,10 @@ public class NewOrder extends TpccRecord {
   public static final String KEY_DISTRICT_ID = "no_d_id";
   public static final String KEY_ORDER_ID = "no_o_id";
 
+  private final int warehouseId;
+  private final int districtId;
+  private final int orderId;
+
   /**
    * Constructs a {@code NewOrder}.
    *
@@ -28,12 +28,9 @@ public class NewOrder extends TpccRecord {
    * @param orderId an order ID
    */
   public NewOrder(int warehouseId, int districtId, int orderId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, orderId);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
   }
 
   /**
@@ -42,12 +39,9 @@ public class NewOrder extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public NewOrder(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, Integer.parseInt(record.get(KEY_ORDER_ID)));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.orderId = Integer.parseInt(record.get(KEY_ORDER_ID));
   }
 
   /**
@@ -58,10 +52,10 @@ public class NewOrder extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_DISTRICT_ID, districtId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_DISTRICT_ID, districtId)
+        .build();
   }
 
   /**
@@ -71,7 +65,7 @@ public class NewOrder extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createClusteringKey(int orderId) {
-    return new Key(KEY_ORDER_ID, orderId);
+    return Key.ofInt(KEY_ORDER_ID, orderId);
   }
 
   /**
@@ -81,9 +75,23 @@ public class NewOrder extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    Key clusteringKey = createClusteringKey();
-    return new Put(partitionKey, clusteringKey).forTable(TABLE_NAME);
+    return newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId))
+        .clusteringKey(createClusteringKey(orderId))
+        .build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_ORDER_ID:
+        return orderId;
+      default:
+        return null;
+    }
   }
 
   /** Creates a {@code Delete} object. */
@@ -101,4 +109,15 @@ public class NewOrder extends TpccRecord {
         .withOrdering(new Ordering(KEY_ORDER_ID, Scan.Ordering.Order.ASC))
         .withLimit(1);
   }
+
+  /**
+   * Creates a {@code Scan} object for the ID of the oldest outstanding new-order.
+   *
+   * @param warehouseId a warehouse ID
+   * @param districtId a district ID
+   * @return a {@code Scan} object
+   */
+  public static Scan createIdScan(int warehouseId, int districtId) {
+    return createScan(warehouseId, districtId).withProjection(KEY_ORDER_ID);
+  }
 }
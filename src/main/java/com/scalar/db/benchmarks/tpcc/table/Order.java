@@ -2,19 +2,15 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.api.Result;
 import com.scalar.db.api.Scan;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class Order extends TpccRecord {
@@ -38,6 +34,17 @@ public class Order extends TpccRecord {
         return -valueA.compareTo(valueB);
       };
 
+  private final int warehouseId;
+  private final int districtId;
+  private final int orderId;
+  private final boolean carrierIdOnly;
+  private final int customerId;
+  private final int carrierId;
+  private final int orderLineCount;
+  private final int allLocal;
+  private final Date entryDate;
+  private String index;
+
   /**
    * Constructs a {@code Order} with a carrier ID for update.
    *
@@ -47,15 +54,15 @@ public class Order extends TpccRecord {
    * @param carrierId a carrier ID
    */
   public Order(int warehouseId, int districtId, int orderId, int carrierId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ID, orderId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CARRIER_ID, carrierId);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
+    this.carrierIdOnly = true;
+    this.customerId = 0;
+    this.carrierId = carrierId;
+    this.orderLineCount = 0;
+    this.allLocal = 0;
+    this.entryDate = null;
   }
 
   /**
@@ -79,19 +86,15 @@ public class Order extends TpccRecord {
       int number,
       int local,
       Date date) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ID, orderId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CUSTOMER_ID, customerId);
-    valueMap.put(KEY_CARRIER_ID, carrierId);
-    valueMap.put(KEY_OL_CNT, number);
-    valueMap.put(KEY_ALL_LOCAL, local);
-    valueMap.put(KEY_ENTRY_D, date);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
+    this.carrierIdOnly = false;
+    this.customerId = customerId;
+    this.carrierId = carrierId;
+    this.orderLineCount = number;
+    this.allLocal = local;
+    this.entryDate = date;
   }
 
   /**
@@ -104,23 +107,19 @@ public class Order extends TpccRecord {
    * @param date entry date of this order
    */
   public Order(int warehouseId, int districtId, int orderId, int customerId, Date date) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ID, orderId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CUSTOMER_ID, customerId);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
+    this.carrierIdOnly = false;
+    this.customerId = customerId;
     if (orderId < 2101) {
-      valueMap.put(KEY_CARRIER_ID, TpccUtil.randomInt(1, 10));
+      this.carrierId = TpccUtil.randomInt(1, 10);
     } else {
-      valueMap.put(KEY_CARRIER_ID, 0);
+      this.carrierId = 0;
     }
-    valueMap.put(KEY_OL_CNT, TpccUtil.randomInt(OrderLine.MIN_PER_ORDER, OrderLine.MAX_PER_ORDER));
-    valueMap.put(KEY_ALL_LOCAL, 1);
-    valueMap.put(KEY_ENTRY_D, date);
+    this.orderLineCount = TpccUtil.randomInt(OrderLine.MIN_PER_ORDER, OrderLine.MAX_PER_ORDER);
+    this.allLocal = 1;
+    this.entryDate = date;
   }
 
   /**
@@ -129,24 +128,20 @@ public class Order extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public Order(CSVRecord record) throws ParseException {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ID, Integer.parseInt(record.get(KEY_ID)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_CUSTOMER_ID, Integer.parseInt(record.get(KEY_CUSTOMER_ID)));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.orderId = Integer.parseInt(record.get(KEY_ID));
+    this.carrierIdOnly = false;
+    this.customerId = Integer.parseInt(record.get(KEY_CUSTOMER_ID));
     if (!record.get(KEY_CARRIER_ID).isEmpty() && !record.get(KEY_CARRIER_ID).equals("\\N")) {
-      valueMap.put(KEY_CARRIER_ID, Integer.parseInt(record.get(KEY_CARRIER_ID)));
+      this.carrierId = Integer.parseInt(record.get(KEY_CARRIER_ID));
     } else {
-      valueMap.put(KEY_CARRIER_ID, 0);
+      this.carrierId = 0;
     }
-    valueMap.put(KEY_OL_CNT, Integer.parseInt(record.get(KEY_OL_CNT)));
-    valueMap.put(KEY_ALL_LOCAL, Integer.parseInt(record.get(KEY_ALL_LOCAL)));
+    this.orderLineCount = Integer.parseInt(record.get(KEY_OL_CNT));
+    this.allLocal = Integer.parseInt(record.get(KEY_ALL_LOCAL));
     SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-    valueMap.put(KEY_ENTRY_D, dateFormat.parse(record.get(KEY_ENTRY_D)));
+    this.entryDate = dateFormat.parse(record.get(KEY_ENTRY_D));
   }
 
   /**
@@ -157,10 +152,10 @@ public class Order extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_DISTRICT_ID, districtId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_DISTRICT_ID, districtId)
+        .build();
   }
 
   /**
@@ -170,7 +165,7 @@ public class Order extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createClusteringKey(int orderId) {
-    return new Key(KEY_ID, orderId);
+    return Key.ofInt(KEY_ID, orderId);
   }
 
   private static String createIndexString(int warehouseId, int districtId, int customerId) {
@@ -185,10 +180,23 @@ public class Order extends TpccRecord {
    * @return a {@code Scan} object
    */
   public static Scan createScan(int warehouseId, int districtId, int customerId) {
-    Key key = new Key(KEY_INDEX, createIndexString(warehouseId, districtId, customerId));
+    Key key = Key.ofText(KEY_INDEX, createIndexString(warehouseId, districtId, customerId));
     return new Scan(key).forTable(TABLE_NAME);
   }
 
+  /**
+   * Creates a {@code Scan} object for the IDs of the orders of a customer. An index scan can't be
+   * ordered, so the caller still needs to find the latest order.
+   *
+   * @param warehouseId a warehouse ID
+   * @param districtId a district ID
+   * @param customerId a customer ID
+   * @return a {@code Scan} object
+   */
+  public static Scan createIdScan(int warehouseId, int districtId, int customerId) {
+    return createScan(warehouseId, districtId, customerId).withProjection(KEY_ID);
+  }
+
   /** Creates a {@code Get} object. */
   public static Get createGet(int warehouseId, int districtId, int orderId) {
     Key partitionKey = createPartitionKey(warehouseId, districtId);
@@ -203,22 +211,55 @@ public class Order extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    Key clusteringKey = createClusteringKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey, clusteringKey).forTable(TABLE_NAME).withValues(values);
+    PutBuilder.Buildable put =
+        newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId))
+            .clusteringKey(createClusteringKey(orderId))
+            .intValue(KEY_CARRIER_ID, carrierId);
+    if (carrierIdOnly) {
+      return put.build();
+    }
+    put.intValue(KEY_CUSTOMER_ID, customerId)
+        .intValue(KEY_OL_CNT, orderLineCount)
+        .intValue(KEY_ALL_LOCAL, allLocal)
+        .bigIntValue(KEY_ENTRY_D, entryDate.getTime());
+    if (index != null) {
+      put.textValue(KEY_INDEX, index);
+    }
+    return put.build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_ID:
+        return orderId;
+      case KEY_CUSTOMER_ID:
+        return carrierIdOnly ? null : customerId;
+      case KEY_CARRIER_ID:
+        return carrierId;
+      case KEY_OL_CNT:
+        return carrierIdOnly ? null : orderLineCount;
+      case KEY_ALL_LOCAL:
+        return carrierIdOnly ? null : allLocal;
+      case KEY_ENTRY_D:
+        return entryDate;
+      case KEY_INDEX:
+        return index;
+      default:
+        return null;
+    }
   }
 
   /** Builds a column for secondary index. */
   public void buildIndexColumn() {
-    int warehouseId = (int) partitionKeyMap.get(KEY_WAREHOUSE_ID);
-    int districtId = (int) partitionKeyMap.get(KEY_DISTRICT_ID);
-    int customerId = (int) valueMap.get(KEY_CUSTOMER_ID);
-    String index = createIndexString(warehouseId, districtId, customerId);
-    valueMap.put(KEY_INDEX, index);
+    index = createIndexString(warehouseId, districtId, customerId);
   }
 
   public int getOrderLineCount() {
-    return (Integer) valueMap.get(KEY_OL_CNT);
+    return orderLineCount;
   }
 }
@@ -1,17 +1,13 @@
 package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.api.Scan;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class OrderLine extends TpccRecord {
@@ -33,6 +29,18 @@ public class OrderLine extends TpccRecord {
   public static final int MAX_PER_ORDER = 15;
   public static final int DIST_INFO_SIZE = 24;
 
+  private final int warehouseId;
+  private final int districtId;
+  private final int orderId;
+  private final int number;
+  private final boolean deliveryDateOnly;
+  private final int itemId;
+  private final int supplyWarehouseId;
+  private final Date deliveryDate;
+  private final double amount;
+  private final int quantity;
+  private final String distInfo;
+
   /**
    * Constructs a {@code OrderLine} with delivery date for update.
    *
@@ -43,16 +51,17 @@ public class OrderLine extends TpccRecord {
    * @param deliveryDate district information
    */
   public OrderLine(int warehouseId, int districtId, int orderId, int number, Date deliveryDate) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, orderId);
-    clusteringKeyMap.put(KEY_NUMBER, number);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_DELIVERY_D, deliveryDate);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
+    this.number = number;
+    this.deliveryDateOnly = true;
+    this.itemId = 0;
+    this.supplyWarehouseId = 0;
+    this.deliveryDate = deliveryDate;
+    this.amount = 0;
+    this.quantity = 0;
+    this.distInfo = null;
   }
 
   /**
@@ -78,21 +87,17 @@ public class OrderLine extends TpccRecord {
       int quantity,
       int itemId,
       String info) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, orderId);
-    clusteringKeyMap.put(KEY_NUMBER, number);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_ITEM_ID, itemId);
-    valueMap.put(KEY_SUPPLY_W_ID, supplyWarehouseId);
-    valueMap.put(KEY_DELIVERY_D, null);
-    valueMap.put(KEY_AMOUNT, amount);
-    valueMap.put(KEY_QUANTITY, quantity);
-    valueMap.put(KEY_DIST_INFO, info);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
+    this.number = number;
+    this.deliveryDateOnly = false;
+    this.itemId = itemId;
+    this.supplyWarehouseId = supplyWarehouseId;
+    this.deliveryDate = null;
+    this.amount = amount;
+    this.quantity = quantity;
+    this.distInfo = info;
   }
 
   /**
@@ -114,26 +119,22 @@ public class OrderLine extends TpccRecord {
       int supplyWarehouseId,
       int itemId,
       Date date) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, orderId);
-    clusteringKeyMap.put(KEY_NUMBER, number);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_ITEM_ID, itemId);
-    valueMap.put(KEY_SUPPLY_W_ID, supplyWarehouseId);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.orderId = orderId;
+    this.number = number;
+    this.deliveryDateOnly = false;
+    this.itemId = itemId;
+    this.supplyWarehouseId = supplyWarehouseId;
     if (orderId < 2101) {
-      valueMap.put(KEY_DELIVERY_D, date);
-      valueMap.put(KEY_AMOUNT, 0.00);
+      this.deliveryDate = date;
+      this.amount = 0.00;
     } else {
-      valueMap.put(KEY_DELIVERY_D, null);
-      valueMap.put(KEY_AMOUNT, TpccUtil.randomDouble(1, 999999, 100));
+      this.deliveryDate = null;
+      this.amount = TpccUtil.randomDouble(1, 999999, 100);
     }
-    valueMap.put(KEY_QUANTITY, 5);
-    valueMap.put(KEY_DIST_INFO, TpccUtil.randomAlphaString(DIST_INFO_SIZE));
+    this.quantity = 5;
+    this.distInfo = TpccUtil.randomAlphaString(DIST_INFO_SIZE);
   }
 
   /**
@@ -142,25 +143,21 @@ public class OrderLine extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public OrderLine(CSVRecord record) throws ParseException {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, Integer.parseInt(record.get(KEY_ORDER_ID)));
-    clusteringKeyMap.put(KEY_NUMBER, Integer.parseInt(record.get(KEY_NUMBER)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_ITEM_ID, Integer.parseInt(record.get(KEY_ITEM_ID)));
-    valueMap.put(KEY_SUPPLY_W_ID, Integer.parseInt(record.get(KEY_SUPPLY_W_ID)));
-    valueMap.put(KEY_AMOUNT, Double.parseDouble(record.get(KEY_AMOUNT)));
-    valueMap.put(KEY_QUANTITY, Integer.parseInt(record.get(KEY_QUANTITY)));
-    valueMap.put(KEY_DIST_INFO, record.get(KEY_DIST_INFO));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.orderId = Integer.parseInt(record.get(KEY_ORDER_ID));
+    this.number = Integer.parseInt(record.get(KEY_NUMBER));
+    this.deliveryDateOnly = false;
+    this.itemId = Integer.parseInt(record.get(KEY_ITEM_ID));
+    this.supplyWarehouseId = Integer.parseInt(record.get(KEY_SUPPLY_W_ID));
+    this.amount = Double.parseDouble(record.get(KEY_AMOUNT));
+    this.quantity = Integer.parseInt(record.get(KEY_QUANTITY));
+    this.distInfo = record.get(KEY_DIST_INFO);
     if (!record.get(KEY_DELIVERY_D).isEmpty() && !record.get(KEY_DELIVERY_D).equals("\\N")) {
       SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-      valueMap.put(KEY_DELIVERY_D, dateFormat.parse(record.get(KEY_DELIVERY_D)));
+      this.deliveryDate = dateFormat.parse(record.get(KEY_DELIVERY_D));
     } else {
-      valueMap.put(KEY_DELIVERY_D, null);
+      this.deliveryDate = null;
     }
   }
 
@@ -172,18 +169,18 @@ public class OrderLine extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_DISTRICT_ID, districtId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_DISTRICT_ID, districtId)
+        .build();
   }
 
   /** Creates a clustering {@code Key}. */
   public static Key createClusteringKey(int orderId, int orderLineNumber) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_ORDER_ID, orderId));
-    keys.add(new IntValue(KEY_NUMBER, orderLineNumber));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_ORDER_ID, orderId)
+        .addInt(KEY_NUMBER, orderLineNumber)
+        .build();
   }
 
   /**
@@ -193,10 +190,49 @@ public class OrderLine extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    Key clusteringKey = createClusteringKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey, clusteringKey).forTable(TABLE_NAME).withValues(values);
+    PutBuilder.Buildable put =
+        newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId))
+            .clusteringKey(createClusteringKey(orderId, number));
+    if (deliveryDate != null) {
+      put.bigIntValue(KEY_DELIVERY_D, deliveryDate.getTime());
+    }
+    if (deliveryDateOnly) {
+      return put.build();
+    }
+    return put.intValue(KEY_ITEM_ID, itemId)
+        .intValue(KEY_SUPPLY_W_ID, supplyWarehouseId)
+        .doubleValue(KEY_AMOUNT, amount)
+        .intValue(KEY_QUANTITY, quantity)
+        .textValue(KEY_DIST_INFO, distInfo)
+        .build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_ORDER_ID:
+        return orderId;
+      case KEY_NUMBER:
+        return number;
+      case KEY_ITEM_ID:
+        return deliveryDateOnly ? null : itemId;
+      case KEY_DELIVERY_D:
+        return deliveryDate;
+      case KEY_AMOUNT:
+        return deliveryDateOnly ? null : amount;
+      case KEY_SUPPLY_W_ID:
+        return deliveryDateOnly ? null : supplyWarehouseId;
+      case KEY_QUANTITY:
+        return deliveryDateOnly ? null : quantity;
+      case KEY_DIST_INFO:
+        return distInfo;
+      default:
+        return null;
+    }
   }
 
   /** Creates a {@code Scan} object for order-lines with a specified order ID. */
@@ -207,8 +243,8 @@ public class OrderLine extends TpccRecord {
   /** Creates a {@code Scan} object for order-lines with a range of order IDs. */
   public static Scan createScan(int warehouseId, int districtId, int orderIdStart, int orderIdEnd) {
     Key partitionKey = createPartitionKey(warehouseId, districtId);
-    Key start = new Key(OrderLine.KEY_ORDER_ID, orderIdStart);
-    Key end = new Key(OrderLine.KEY_ORDER_ID, orderIdEnd);
+    Key start = Key.ofInt(OrderLine.KEY_ORDER_ID, orderIdStart);
+    Key end = Key.ofInt(OrderLine.KEY_ORDER_ID, orderIdEnd);
     return new Scan(partitionKey).forTable(TABLE_NAME).withStart(start).withEnd(end);
   }
 }
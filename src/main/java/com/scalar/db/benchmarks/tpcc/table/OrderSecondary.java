@@ -3,11 +3,7 @@ package com.scalar.db.benchmarks.tpcc.table;
 import com.scalar.db.api.Put;
 import com.scalar.db.api.Scan;
 import com.scalar.db.api.Scan.Ordering;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class OrderSecondary extends TpccRecord {
@@ -18,6 +14,11 @@ public class OrderSecondary extends TpccRecord {
   public static final String KEY_CUSTOMER_ID = "o_c_id";
   public static final String KEY_ORDER_ID = "o_id";
 
+  private final int warehouseId;
+  private final int districtId;
+  private final int customerId;
+  private final int orderId;
+
   /**
    * Constructs a {@code OrderSecondary}.
    *
@@ -27,13 +28,10 @@ public class OrderSecondary extends TpccRecord {
    * @param orderId an order ID
    */
   public OrderSecondary(int warehouseId, int districtId, int customerId, int orderId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_DISTRICT_ID, districtId);
-    partitionKeyMap.put(KEY_CUSTOMER_ID, customerId);
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, orderId);
+    this.warehouseId = warehouseId;
+    this.districtId = districtId;
+    this.customerId = customerId;
+    this.orderId = orderId;
   }
 
   /**
@@ -42,13 +40,10 @@ public class OrderSecondary extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public OrderSecondary(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_DISTRICT_ID, Integer.parseInt(record.get(KEY_DISTRICT_ID)));
-    partitionKeyMap.put(KEY_CUSTOMER_ID, Integer.parseInt(record.get(KEY_CUSTOMER_ID)));
-
-    clusteringKeyMap = new LinkedHashMap<>();
-    clusteringKeyMap.put(KEY_ORDER_ID, Integer.parseInt(record.get(KEY_ORDER_ID)));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.districtId = Integer.parseInt(record.get(KEY_DISTRICT_ID));
+    this.customerId = Integer.parseInt(record.get(KEY_CUSTOMER_ID));
+    this.orderId = Integer.parseInt(record.get(KEY_ORDER_ID));
   }
 
   /**
@@ -60,11 +55,11 @@ public class OrderSecondary extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int districtId, int customerId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_DISTRICT_ID, districtId));
-    keys.add(new IntValue(KEY_CUSTOMER_ID, customerId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_DISTRICT_ID, districtId)
+        .addInt(KEY_CUSTOMER_ID, customerId)
+        .build();
   }
 
   /**
@@ -74,9 +69,7 @@ public class OrderSecondary extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createClusteringKey(int orderId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_ORDER_ID, orderId));
-    return new Key(keys);
+    return Key.ofInt(KEY_ORDER_ID, orderId);
   }
 
   /**
@@ -86,9 +79,25 @@ public class OrderSecondary extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    Key clusteringKey = createClusteringKey();
-    return new Put(partitionKey, clusteringKey).forTable(TABLE_NAME);
+    return newPut(TABLE_NAME, createPartitionKey(warehouseId, districtId, customerId))
+        .clusteringKey(createClusteringKey(orderId))
+        .build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_DISTRICT_ID:
+        return districtId;
+      case KEY_CUSTOMER_ID:
+        return customerId;
+      case KEY_ORDER_ID:
+        return orderId;
+      default:
+        return null;
+    }
   }
 
   /**
@@ -106,4 +115,16 @@ public class OrderSecondary extends TpccRecord {
         .withOrdering(new Ordering(KEY_ORDER_ID, Scan.Ordering.Order.DESC))
         .withLimit(1);
   }
+
+  /**
+   * Creates a {@code Scan} object for the ID of the latest order of a customer.
+   *
+   * @param warehouseId a warehouse ID
+   * @param districtId a district ID
+   * @param customerId a customer ID
+   * @return a {@code Scan} object
+   */
+  public static Scan createIdScan(int warehouseId, int districtId, int customerId) {
+    return createScan(warehouseId, districtId, customerId).withProjection(KEY_ORDER_ID);
+  }
 }
@@ -2,13 +2,9 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
-import com.scalar.db.io.IntValue;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class Stock extends TpccRecord {
@@ -38,6 +34,28 @@ public class Stock extends TpccRecord {
   public static final int MAX_DATA = 50;
   public static final int DIST_SIZE = 24;
 
+  private static final String[] KEY_DISTRICTS = {
+    KEY_DISTRICT01,
+    KEY_DISTRICT02,
+    KEY_DISTRICT03,
+    KEY_DISTRICT04,
+    KEY_DISTRICT05,
+    KEY_DISTRICT06,
+    KEY_DISTRICT07,
+    KEY_DISTRICT08,
+    KEY_DISTRICT09,
+    KEY_DISTRICT10
+  };
+
+  private final int warehouseId;
+  private final int itemId;
+  private final int quantity;
+  private final double ytd;
+  private final int orderCount;
+  private final int remoteCount;
+  private final String data;
+  private final String[] districts;
+
   /**
    * Constructs a {@code Stock} with specified parameters for update.
    *
@@ -50,15 +68,14 @@ public class Stock extends TpccRecord {
    */
   public Stock(
       int warehouseId, int itemId, int quantity, double ytd, int orderCount, int remoteCount) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_ITEM_ID, itemId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_QUANTITY, quantity);
-    valueMap.put(KEY_YTD, ytd);
-    valueMap.put(KEY_ORDER_CNT, orderCount);
-    valueMap.put(KEY_REMOTE_CNT, remoteCount);
+    this.warehouseId = warehouseId;
+    this.itemId = itemId;
+    this.quantity = quantity;
+    this.ytd = ytd;
+    this.orderCount = orderCount;
+    this.remoteCount = remoteCount;
+    this.data = null;
+    this.districts = null;
   }
 
   /**
@@ -68,19 +85,16 @@ public class Stock extends TpccRecord {
    * @param itemId an item ID
    */
   public Stock(int warehouseId, int itemId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, warehouseId);
-    partitionKeyMap.put(KEY_ITEM_ID, itemId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_QUANTITY, TpccUtil.randomInt(10, 100));
-    valueMap.put(KEY_YTD, 0.00);
-    valueMap.put(KEY_ORDER_CNT, 0);
-    valueMap.put(KEY_REMOTE_CNT, 0);
-    valueMap.put(KEY_DATA, TpccUtil.getRandomStringWithOriginal(MIN_DATA, MAX_DATA, 10));
-    for (int i = 0; i < 10; i++) {
-      String key = KEY_DIST_PREFIX + String.format("%02d", i + 1);
-      valueMap.put(key, TpccUtil.randomAlphaString(DIST_SIZE));
+    this.warehouseId = warehouseId;
+    this.itemId = itemId;
+    this.quantity = TpccUtil.randomInt(10, 100);
+    this.ytd = 0.00;
+    this.orderCount = 0;
+    this.remoteCount = 0;
+    this.data = TpccUtil.getRandomStringWithOriginal(MIN_DATA, MAX_DATA, 10);
+    this.districts = new String[KEY_DISTRICTS.length];
+    for (int i = 0; i < KEY_DISTRICTS.length; i++) {
+      districts[i] = TpccUtil.randomAlphaString(DIST_SIZE);
     }
   }
 
@@ -90,19 +104,16 @@ public class Stock extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public Stock(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_WAREHOUSE_ID, Integer.parseInt(record.get(KEY_WAREHOUSE_ID)));
-    partitionKeyMap.put(KEY_ITEM_ID, Integer.parseInt(record.get(KEY_ITEM_ID)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_QUANTITY, Integer.parseInt(record.get(KEY_QUANTITY)));
-    valueMap.put(KEY_YTD, Double.parseDouble(record.get(KEY_YTD)));
-    valueMap.put(KEY_ORDER_CNT, Integer.parseInt(record.get(KEY_ORDER_CNT)));
-    valueMap.put(KEY_REMOTE_CNT, Integer.parseInt(record.get(KEY_REMOTE_CNT)));
-    valueMap.put(KEY_DATA, record.get(KEY_DATA));
-    for (int i = 0; i < 10; i++) {
-      String key = KEY_DIST_PREFIX + String.format("%02d", i + 1);
-      valueMap.put(key, record.get(key));
+    this.warehouseId = Integer.parseInt(record.get(KEY_WAREHOUSE_ID));
+    this.itemId = Integer.parseInt(record.get(KEY_ITEM_ID));
+    this.quantity = Integer.parseInt(record.get(KEY_QUANTITY));
+    this.ytd = Double.parseDouble(record.get(KEY_YTD));
+    this.orderCount = Integer.parseInt(record.get(KEY_ORDER_CNT));
+    this.remoteCount = Integer.parseInt(record.get(KEY_REMOTE_CNT));
+    this.data = record.get(KEY_DATA);
+    this.districts = new String[KEY_DISTRICTS.length];
+    for (int i = 0; i < KEY_DISTRICTS.length; i++) {
+      districts[i] = record.get(KEY_DISTRICTS[i]);
     }
   }
 
@@ -114,10 +125,10 @@ public class Stock extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId, int itemId) {
-    ArrayList<Value<?>> keys = new ArrayList<>();
-    keys.add(new IntValue(KEY_WAREHOUSE_ID, warehouseId));
-    keys.add(new IntValue(KEY_ITEM_ID, itemId));
-    return new Key(keys);
+    return Key.newBuilder()
+        .addInt(KEY_WAREHOUSE_ID, warehouseId)
+        .addInt(KEY_ITEM_ID, itemId)
+        .build();
   }
 
   /**
@@ -139,8 +150,49 @@ public class Stock extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey).forTable(TABLE_NAME).withValues(values);
+    PutBuilder.Buildable put =
+        newPut(TABLE_NAME, createPartitionKey(warehouseId, itemId))
+            .intValue(KEY_QUANTITY, quantity)
+            .doubleValue(KEY_YTD, ytd)
+            .intValue(KEY_ORDER_CNT, orderCount)
+            .intValue(KEY_REMOTE_CNT, remoteCount);
+    if (data == null) {
+      return put.build();
+    }
+    put.textValue(KEY_DATA, data);
+    for (int i = 0; i < KEY_DISTRICTS.length; i++) {
+      put.textValue(KEY_DISTRICTS[i], districts[i]);
+    }
+    return put.build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_WAREHOUSE_ID:
+        return warehouseId;
+      case KEY_ITEM_ID:
+        return itemId;
+      case KEY_QUANTITY:
+        return quantity;
+      case KEY_YTD:
+        return ytd;
+      case KEY_ORDER_CNT:
+        return orderCount;
+      case KEY_REMOTE_CNT:
+        return remoteCount;
+      case KEY_DATA:
+        return data;
+      default:
+        break;
+    }
+    if (districts != null) {
+      for (int i = 0; i < KEY_DISTRICTS.length; i++) {
+        if (KEY_DISTRICTS[i].equals(column)) {
+          return districts[i];
+        }
+      }
+    }
+    return null;
   }
 }
@@ -1,80 +1,33 @@
 package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Put;
-import com.scalar.db.io.BigIntValue;
-import com.scalar.db.io.DoubleValue;
-import com.scalar.db.io.IntValue;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.TextValue;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.Map;
+import javax.annotation.Nullable;
 
 public abstract class TpccRecord {
 
   public static final String NAMESPACE = "tpcc";
 
-  protected Map<String, Object> partitionKeyMap;
-  protected Map<String, Object> clusteringKeyMap;
-  protected Map<String, Object> valueMap;
-
-  private Value<?> createSingleValue(String key, Object object) {
-    if (object instanceof Integer) {
-      return new IntValue(key, (Integer) object);
-    } else if (object instanceof Double) {
-      return new DoubleValue(key, (Double) object);
-    } else if (object instanceof String) {
-      return new TextValue(key, (String) object);
-    } else if (object instanceof Date) {
-      return new BigIntValue(key, ((Date) object).getTime());
-    }
-    return null;
-  }
-
-  /** Creates a partition {@code Key}. */
-  public Key createPartitionKey() {
-    ArrayList<Value<?>> values = new ArrayList<>();
-    partitionKeyMap.forEach(
-        (key, value) -> {
-          if (value != null) {
-            values.add(createSingleValue(key, value));
-          }
-        });
-    return new Key(values);
-  }
-
-  /** Creates a clustering {@code Key}. */
-  public Key createClusteringKey() {
-    ArrayList<Value<?>> values = new ArrayList<>();
-    clusteringKeyMap.forEach(
-        (key, value) -> {
-          if (value != null) {
-            values.add(createSingleValue(key, value));
-          }
-        });
-    return new Key(values);
+  /**
+   * Starts a {@code Put} for the specified table and partition key.
+   *
+   * @param table a table name
+   * @param partitionKey a partition {@code Key}
+   * @return a {@code PutBuilder.Buildable} to add clustering key and values to
+   */
+  protected static PutBuilder.Buildable newPut(String table, Key partitionKey) {
+    return Put.newBuilder().namespace(NAMESPACE).table(table).partitionKey(partitionKey);
   }
 
   /**
-   * Creates an {@code ArrayList} of {@code Value<?>}.
+   * Returns the value of the specified column.
    *
-   * @return an {@code ArrayList} of {@code Value<?>}
+   * @param name a column name
+   * @return the value of the column, or {@code null} if this record doesn't have the column
    */
-  public ArrayList<Value<?>> createValues() {
-    ArrayList<Value<?>> values = new ArrayList<>();
-    valueMap.forEach(
-        (key, value) -> {
-          if (value != null) {
-            if (value instanceof Address) {
-              values.addAll(((Address) value).createValues());
-            } else {
-              values.add(createSingleValue(key, value));
-            }
-          }
-        });
-    return values;
-  }
+  @Nullable
+  public abstract Object getColumn(String name);
 
   public abstract Put createPut();
 }
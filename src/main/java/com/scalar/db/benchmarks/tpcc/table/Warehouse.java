@@ -2,12 +2,9 @@ package com.scalar.db.benchmarks.tpcc.table;
 
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.io.Key;
-import com.scalar.db.io.Value;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
 import org.apache.commons.csv.CSVRecord;
 
 public class Warehouse extends TpccRecord {
@@ -30,6 +27,13 @@ public class Warehouse extends TpccRecord {
   public static final int MIN_NAME = 6;
   public static final int MAX_NAME = 10;
 
+  private final int warehouseId;
+  private final boolean ytdOnly;
+  private final String name;
+  private final Address address;
+  private final double tax;
+  private final double ytd;
+
   /**
    * Constructs a {@code Warehouse} with ytd.
    *
@@ -37,11 +41,12 @@ public class Warehouse extends TpccRecord {
    * @param ytd a YTD balance
    */
   public Warehouse(int warehouseId, double ytd) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, warehouseId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_YTD, ytd);
+    this.warehouseId = warehouseId;
+    this.ytdOnly = true;
+    this.name = null;
+    this.address = null;
+    this.tax = 0;
+    this.ytd = ytd;
   }
 
   /**
@@ -50,14 +55,12 @@ public class Warehouse extends TpccRecord {
    * @param warehouseId a warehouse ID
    */
   public Warehouse(int warehouseId) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, warehouseId);
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NAME, TpccUtil.randomAlphaString(MIN_NAME, MAX_NAME));
-    valueMap.put(KEY_ADDRESS, new Address(COLUMN_PREFIX));
-    valueMap.put(KEY_TAX, TpccUtil.randomDouble(0, 2000, 10000));
-    valueMap.put(KEY_YTD, 300000.00);
+    this.warehouseId = warehouseId;
+    this.ytdOnly = false;
+    this.name = TpccUtil.randomAlphaString(MIN_NAME, MAX_NAME);
+    this.address = new Address(COLUMN_PREFIX);
+    this.tax = TpccUtil.randomDouble(0, 2000, 10000);
+    this.ytd = 300000.00;
   }
 
   /**
@@ -66,22 +69,19 @@ public class Warehouse extends TpccRecord {
    * @param record a {@code CSVRecord} object
    */
   public Warehouse(CSVRecord record) {
-    partitionKeyMap = new LinkedHashMap<>();
-    partitionKeyMap.put(KEY_ID, Integer.parseInt(record.get(KEY_ID)));
-
-    valueMap = new HashMap<>();
-    valueMap.put(KEY_NAME, record.get(KEY_NAME));
-    valueMap.put(
-        KEY_ADDRESS,
+    this.warehouseId = Integer.parseInt(record.get(KEY_ID));
+    this.ytdOnly = false;
+    this.name = record.get(KEY_NAME);
+    this.address =
         new Address(
             COLUMN_PREFIX,
             record.get(KEY_STREET_1),
             record.get(KEY_STREET_2),
             record.get(KEY_CITY),
             record.get(KEY_STATE),
-            record.get(KEY_ZIP)));
-    valueMap.put(KEY_TAX, Double.parseDouble(record.get(KEY_TAX)));
-    valueMap.put(KEY_YTD, Double.parseDouble(record.get(KEY_TAX)));
+            record.get(KEY_ZIP));
+    this.tax = Double.parseDouble(record.get(KEY_TAX));
+    this.ytd = Double.parseDouble(record.get(KEY_TAX));
   }
 
   /**
@@ -91,7 +91,7 @@ public class Warehouse extends TpccRecord {
    * @return a {@code Key} object
    */
   public static Key createPartitionKey(int warehouseId) {
-    return new Key(KEY_ID, warehouseId);
+    return Key.ofInt(KEY_ID, warehouseId);
   }
 
   /**
@@ -111,8 +111,32 @@ public class Warehouse extends TpccRecord {
    */
   @Override
   public Put createPut() {
-    Key partitionKey = createPartitionKey();
-    ArrayList<Value<?>> values = createValues();
-    return new Put(partitionKey).forTable(TABLE_NAME).withValues(values);
+    PutBuilder.Buildable put = newPut(TABLE_NAME, createPartitionKey(warehouseId));
+    if (!ytdOnly) {
+      put.textValue(KEY_NAME, name)
+          .textValue(KEY_STREET_1, address.getStreet1())
+          .textValue(KEY_STREET_2, address.getStreet2())
+          .textValue(KEY_CITY, address.getCity())
+          .textValue(KEY_STATE, address.getState())
+          .textValue(KEY_ZIP, address.getZip())
+          .doubleValue(KEY_TAX, tax);
+    }
+    return put.doubleValue(KEY_YTD, ytd).build();
+  }
+
+  @Override
+  public Object getColumn(String column) {
+    switch (column) {
+      case KEY_ID:
+        return warehouseId;
+      case KEY_NAME:
+        return name;
+      case KEY_TAX:
+        return ytdOnly ? null : tax;
+      case KEY_YTD:
+        return ytd;
+      default:
+        return address == null ? null : address.getColumn(column);
+    }
   }
 }
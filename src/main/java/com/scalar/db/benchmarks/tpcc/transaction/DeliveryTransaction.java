@@ -2,7 +2,12 @@ package com.scalar.db.benchmarks.tpcc.transaction;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Get;
 import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.benchmarks.ConcurrentOperations;
+import com.scalar.db.benchmarks.tpcc.ScanCounter;
+import com.scalar.db.benchmarks.tpcc.Terminal;
 import com.scalar.db.benchmarks.tpcc.TpccConfig;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.benchmarks.tpcc.table.Customer;
@@ -11,87 +16,188 @@ import com.scalar.db.benchmarks.tpcc.table.Order;
 import com.scalar.db.benchmarks.tpcc.table.OrderLine;
 import com.scalar.db.benchmarks.tpcc.table.Warehouse;
 import com.scalar.db.exception.transaction.TransactionException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
+/**
+ * The Delivery transaction. The districts of the warehouse are delivered in one of the following
+ * ways depending on the delivery mode.
+ *
+ * <ul>
+ *   <li>"serial": one after another in a single transaction (default)
+ *   <li>"parallel": in a single transaction, reading the orders of the districts concurrently with
+ *       {@link ConcurrentOperations}
+ *   <li>"per_district": in a transaction for each district, as the TPC-C specification allows for
+ *       the deferred execution
+ * </ul>
+ */
 public class DeliveryTransaction implements TpccTransaction {
+  public static final String MODE_SERIAL = "serial";
+  public static final String MODE_PARALLEL = "parallel";
+  public static final String MODE_PER_DISTRICT = "per_district";
   private final TpccConfig config;
   private final DistributedTransactionManager manager;
+  private final Terminal terminal;
+  private final ScanCounter scanCounter = new ScanCounter();
+  // null unless the districts are delivered in parallel
+  private final ConcurrentOperations concurrentOperations;
   private DistributedTransaction transaction;
   private int warehouseId;
   private int carrierId;
   private Date deliveryDate;
+  private int deliveredDistricts; // a bit for each district delivered in the per-district mode
 
-  public DeliveryTransaction(DistributedTransactionManager manager, TpccConfig config) {
+  public DeliveryTransaction(
+      DistributedTransactionManager manager,
+      TpccConfig config,
+      Terminal terminal,
+      @Nullable ConcurrentOperations concurrentOperations) {
     this.manager = manager;
     this.config = config;
+    this.terminal = terminal;
+    this.concurrentOperations = concurrentOperations;
     generate();
   }
 
   private void generate() {
-    int numWarehouse = config.getNumWarehouse();
-    warehouseId = TpccUtil.randomInt(1, numWarehouse);
+    warehouseId = terminal.nextWarehouseId();
     carrierId = TpccUtil.randomInt(1, 10);
     deliveryDate = new Date();
   }
 
+  @Override
+  public String getName() {
+    return "Delivery";
+  }
+
   @Override
   public void execute() throws TransactionException {
-    transaction = manager.start();
+    scanCounter.reset();
+    switch (config.getDeliveryMode()) {
+      case MODE_PARALLEL:
+        transaction = manager.start();
+        deliverConcurrently();
+        break;
+      case MODE_PER_DISTRICT:
+        // the districts delivered by a failed attempt are not delivered again by the retry
+        for (int districtId = 1; districtId <= Warehouse.DISTRICTS; districtId++) {
+          if ((deliveredDistricts & (1 << districtId)) != 0) {
+            continue;
+          }
+          transaction = manager.start();
+          deliver(transaction, districtId);
+          transaction.commit();
+          transaction = null;
+          deliveredDistricts |= 1 << districtId;
+        }
+        break;
+      default:
+        transaction = manager.start();
+        for (int districtId = 1; districtId <= Warehouse.DISTRICTS; districtId++) {
+          deliver(transaction, districtId);
+        }
+        break;
+    }
+  }
 
+  /**
+   * Delivers the districts in a single transaction, reading the orders of the districts
+   * concurrently. Only the reads by {@code get} go through {@link ConcurrentOperations}, and the
+   * scans and the writes are executed on the calling thread since Consensus Commit keeps them in
+   * maps that are not thread-safe.
+   */
+  private void deliverConcurrently() throws TransactionException {
+    int[] orderIds = new int[Warehouse.DISTRICTS];
+    List<Get> gets = new ArrayList<>(Warehouse.DISTRICTS);
+    for (int districtId = 1; districtId <= Warehouse.DISTRICTS; districtId++) {
+      int orderId = getOldestNewOrderId(transaction, districtId);
+      orderIds[districtId - 1] = orderId;
+      gets.add(Order.createGet(warehouseId, districtId, orderId));
+    }
+    List<Optional<Result>> orders = concurrentOperations.getAll(transaction, gets);
     for (int districtId = 1; districtId <= Warehouse.DISTRICTS; districtId++) {
-      // Get the oldest outstanding new-order
-      List<Result> newOrders = transaction.scan(NewOrder.createScan(warehouseId, districtId));
-      if (newOrders.size() != 1) {
-        throw new TransactionException("Invalid scan on new-order", transaction.getId());
-      }
-      int orderId = newOrders.get(0).getValue(NewOrder.KEY_ORDER_ID).get().getAsInt();
-
-      // Delete the new-order
-      transaction.delete(NewOrder.createDelete(warehouseId, districtId, orderId));
-
-      // Get the customer of the new-order
-      Optional<Result> result = transaction.get(Order.createGet(warehouseId, districtId, orderId));
-      if (!result.isPresent()) {
-        throw new TransactionException("Order not found", transaction.getId());
-      }
-      int customerId = result.get().getValue(Order.KEY_CUSTOMER_ID).get().getAsInt();
-
-      // Update the carrier ID
-      Order order = new Order(warehouseId, districtId, orderId, carrierId);
-      transaction.put(order.createPut());
-
-      // Get and update order-lines
-      double total = 0;
-      List<Result> orderLines =
-          transaction.scan(OrderLine.createScan(warehouseId, districtId, orderId));
-      for (Result line : orderLines) {
-        int number = line.getValue(OrderLine.KEY_NUMBER).get().getAsInt();
-        total += line.getValue(OrderLine.KEY_AMOUNT).get().getAsDouble();
-        OrderLine newLine = new OrderLine(warehouseId, districtId, orderId, number, deliveryDate);
-        transaction.put(newLine.createPut());
-      }
-
-      // Update the customer with new balance and delivery count
-      result = transaction.get(Customer.createGet(warehouseId, districtId, customerId));
-      if (!result.isPresent()) {
-        throw new TransactionException("Customer not found", transaction.getId());
-      }
-      double balance = result.get().getValue(Customer.KEY_BALANCE).get().getAsDouble() + total;
-      int deliveryCount = result.get().getValue(Customer.KEY_DELIVERY_CNT).get().getAsInt() + 1;
-      Customer customer = new Customer(warehouseId, districtId, customerId, balance, deliveryCount);
-      transaction.put(customer.createPut());
+      deliverOrder(transaction, districtId, orderIds[districtId - 1], orders.get(districtId - 1));
+    }
+  }
+
+  private void deliver(DistributedTransaction tx, int districtId) throws TransactionException {
+    int orderId = getOldestNewOrderId(tx, districtId);
+    Optional<Result> order = tx.get(Order.createGet(warehouseId, districtId, orderId));
+    deliverOrder(tx, districtId, orderId, order);
+  }
+
+  private int getOldestNewOrderId(DistributedTransaction tx, int districtId)
+      throws TransactionException {
+    // Get the oldest outstanding new-order, which is the first one in the clustering order
+    Scan scan =
+        config.narrowScans()
+            ? NewOrder.createIdScan(warehouseId, districtId)
+            : NewOrder.createScan(warehouseId, districtId);
+    List<Result> newOrders = scanCounter.scan(tx, scan);
+    if (newOrders.size() != 1) {
+      throw new TransactionException("Invalid scan on new-order", tx.getId());
+    }
+    return newOrders.get(0).getValue(NewOrder.KEY_ORDER_ID).get().getAsInt();
+  }
+
+  private void deliverOrder(
+      DistributedTransaction tx, int districtId, int orderId, Optional<Result> order)
+      throws TransactionException {
+    // Delete the new-order
+    tx.delete(NewOrder.createDelete(warehouseId, districtId, orderId));
+
+    // Get the customer of the new-order
+    if (!order.isPresent()) {
+      throw new TransactionException("Order not found", tx.getId());
     }
+    int customerId = order.get().getValue(Order.KEY_CUSTOMER_ID).get().getAsInt();
+
+    // Update the carrier ID
+    Order newOrder = new Order(warehouseId, districtId, orderId, carrierId);
+    tx.put(newOrder.createPut());
+
+    // Get and update order-lines
+    double total = 0;
+    List<Result> orderLines =
+        scanCounter.scan(tx, OrderLine.createScan(warehouseId, districtId, orderId));
+    for (Result line : orderLines) {
+      int number = line.getValue(OrderLine.KEY_NUMBER).get().getAsInt();
+      total += line.getValue(OrderLine.KEY_AMOUNT).get().getAsDouble();
+      OrderLine newLine = new OrderLine(warehouseId, districtId, orderId, number, deliveryDate);
+      tx.put(newLine.createPut());
+    }
+
+    // Update the customer with new balance and delivery count
+    Optional<Result> result = tx.get(Customer.createGet(warehouseId, districtId, customerId));
+    if (!result.isPresent()) {
+      throw new TransactionException("Customer not found", tx.getId());
+    }
+    double balance = result.get().getValue(Customer.KEY_BALANCE).get().getAsDouble() + total;
+    int deliveryCount = result.get().getValue(Customer.KEY_DELIVERY_CNT).get().getAsInt() + 1;
+    Customer customer = new Customer(warehouseId, districtId, customerId, balance, deliveryCount);
+    tx.put(customer.createPut());
   }
 
   @Override
   public void commit() throws TransactionException {
-    transaction.commit();
+    // the per-district transactions have already been committed
+    if (transaction != null) {
+      transaction.commit();
+    }
   }
 
   @Override
   public void abort() throws TransactionException {
-    transaction.abort();
+    if (transaction != null) {
+      transaction.abort();
+    }
+  }
+
+  @Override
+  public ScanCounter getScanCounter() {
+    return scanCounter;
   }
 }
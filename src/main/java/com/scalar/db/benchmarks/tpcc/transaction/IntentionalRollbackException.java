@@ -0,0 +1,15 @@
+package com.scalar.db.benchmarks.tpcc.transaction;
+
+import com.scalar.db.exception.transaction.TransactionException;
+
+/**
+ * Thrown when a transaction is rolled back as the TPC-C specification requires, such as the 1% of
+ * New-Order transactions that order an unused item. Such a transaction is completed, not failed,
+ * so it is counted as a rollback and is included in tpmC.
+ */
+public class IntentionalRollbackException extends TransactionException {
+
+  public IntentionalRollbackException(String message, String transactionId) {
+    super(message, transactionId);
+  }
+}
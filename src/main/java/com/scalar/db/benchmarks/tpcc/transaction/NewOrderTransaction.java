@@ -3,6 +3,9 @@ package com.scalar.db.benchmarks.tpcc.transaction;
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
 import com.scalar.db.api.Result;
+import com.scalar.db.benchmarks.tpcc.ItemCache;
+import com.scalar.db.benchmarks.tpcc.ScanCounter;
+import com.scalar.db.benchmarks.tpcc.Terminal;
 import com.scalar.db.benchmarks.tpcc.TpccConfig;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.benchmarks.tpcc.table.Customer;
@@ -17,10 +20,14 @@ import com.scalar.db.benchmarks.tpcc.table.Warehouse;
 import com.scalar.db.exception.transaction.TransactionException;
 import java.util.Date;
 import java.util.Optional;
+import javax.annotation.Nullable;
 
 public class NewOrderTransaction implements TpccTransaction {
   private final TpccConfig config;
   private final DistributedTransactionManager manager;
+  private final Terminal terminal;
+  private final ScanCounter scanCounter = new ScanCounter();
+  private final ItemCache itemCache; // null if the items are read in the transaction
   private DistributedTransaction transaction;
   private int warehouseId;
   private int districtId;
@@ -31,16 +38,24 @@ public class NewOrderTransaction implements TpccTransaction {
   private int[] orderQuantities;
   private boolean remote;
   private Date date;
+  private long itemLookupNanos;
+  private int itemReads;
 
-  public NewOrderTransaction(DistributedTransactionManager manager, TpccConfig config) {
+  public NewOrderTransaction(
+      DistributedTransactionManager manager,
+      TpccConfig config,
+      Terminal terminal,
+      @Nullable ItemCache itemCache) {
     this.manager = manager;
     this.config = config;
+    this.terminal = terminal;
+    this.itemCache = itemCache;
     generate();
   }
 
   private void generate() {
     int numWarehouse = config.getNumWarehouse();
-    warehouseId = TpccUtil.randomInt(1, numWarehouse);
+    warehouseId = terminal.nextWarehouseId();
     districtId = TpccUtil.randomInt(1, Warehouse.DISTRICTS);
     customerId = TpccUtil.getCustomerId();
     orderLineCount = TpccUtil.randomInt(5, 15);
@@ -97,8 +112,55 @@ public class NewOrderTransaction implements TpccTransaction {
     }
   }
 
+  private double getItemPrice(int itemId) throws TransactionException {
+    long start = System.nanoTime();
+    try {
+      if (itemCache != null) {
+        if (!itemCache.contains(itemId)) {
+          throw new IntentionalRollbackException("Item not found", transaction.getId());
+        }
+        return itemCache.getPrice(itemId);
+      }
+      Optional<Result> result = transaction.get(Item.createGet(itemId));
+      itemReads++;
+      if (!result.isPresent()) {
+        throw new IntentionalRollbackException("Item not found", transaction.getId());
+      }
+      return result.get().getValue(Item.KEY_PRICE).get().getAsDouble();
+    } finally {
+      itemLookupNanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Returns the time spent looking up the items in the last execution.
+   *
+   * @return the time in nanoseconds
+   */
+  public long getItemLookupNanos() {
+    return itemLookupNanos;
+  }
+
+  /**
+   * Returns the number of the items read in the transaction in the last execution, which are
+   * added to the read set of the transaction.
+   *
+   * @return the number of item reads
+   */
+  public int getItemReads() {
+    return itemReads;
+  }
+
+  @Override
+  public String getName() {
+    return "NewOrder";
+  }
+
   @Override
   public void execute() throws TransactionException {
+    itemLookupNanos = 0;
+    itemReads = 0;
+    scanCounter.reset();
     transaction = manager.start();
 
     // Get warehouse
@@ -152,11 +214,7 @@ public class NewOrderTransaction implements TpccTransaction {
       final int quantity = orderQuantities[orderLineNumber - 1];
 
       // Get item
-      result = transaction.get(Item.createGet(itemId));
-      if (!result.isPresent()) {
-        throw new TransactionException("Item not found", transaction.getId());
-      }
-      final double itemPrice = result.get().getValue(Item.KEY_PRICE).get().getAsDouble();
+      final double itemPrice = getItemPrice(itemId);
       final double amount =
           quantity * itemPrice * (1.0 + warehouseTax + districtTax) * (1.0 - discount);
 
@@ -213,4 +271,9 @@ public class NewOrderTransaction implements TpccTransaction {
   public void abort() throws TransactionException {
     transaction.abort();
   }
+
+  @Override
+  public ScanCounter getScanCounter() {
+    return scanCounter;
+  }
 }
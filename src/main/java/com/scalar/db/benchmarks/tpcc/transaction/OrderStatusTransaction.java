@@ -3,6 +3,9 @@ package com.scalar.db.benchmarks.tpcc.transaction;
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
 import com.scalar.db.api.Result;
+import com.scalar.db.api.Scan;
+import com.scalar.db.benchmarks.tpcc.ScanCounter;
+import com.scalar.db.benchmarks.tpcc.Terminal;
 import com.scalar.db.benchmarks.tpcc.TpccConfig;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.benchmarks.tpcc.table.Customer;
@@ -18,6 +21,8 @@ import java.util.Optional;
 public class OrderStatusTransaction implements TpccTransaction {
   private final TpccConfig config;
   private final DistributedTransactionManager manager;
+  private final Terminal terminal;
+  private final ScanCounter scanCounter = new ScanCounter();
   private DistributedTransaction transaction;
   private int warehouseId;
   private int districtId;
@@ -25,14 +30,21 @@ public class OrderStatusTransaction implements TpccTransaction {
   private boolean byLastName;
   private String lastName;
 
-  public OrderStatusTransaction(DistributedTransactionManager manager, TpccConfig config) {
+  public OrderStatusTransaction(
+      DistributedTransactionManager manager, TpccConfig config, Terminal terminal) {
     this.manager = manager;
     this.config = config;
+    this.terminal = terminal;
     generate();
   }
 
   private int getOrderIdBySecondaryIndex(DistributedTransaction tx) throws TransactionException {
-    List<Result> results = tx.scan(Order.createScan(warehouseId, districtId, customerId));
+    Scan scan =
+        config.narrowScans()
+            ? Order.createIdScan(warehouseId, districtId, customerId)
+            : Order.createScan(warehouseId, districtId, customerId);
+    List<Result> results = scanCounter.scan(tx, scan);
+    // an index scan can't be ordered, so the orders are sorted here
     if (results.size() < 1) {
       throw new TransactionException("Invalid scan on order-secondary", tx.getId());
     }
@@ -41,7 +53,12 @@ public class OrderStatusTransaction implements TpccTransaction {
   }
 
   private int getOrderIdByTableIndex(DistributedTransaction tx) throws TransactionException {
-    List<Result> results = tx.scan(OrderSecondary.createScan(warehouseId, districtId, customerId));
+    // the orders are clustered by their IDs, so only the latest one is fetched
+    Scan scan =
+        config.narrowScans()
+            ? OrderSecondary.createIdScan(warehouseId, districtId, customerId)
+            : OrderSecondary.createScan(warehouseId, districtId, customerId);
+    List<Result> results = scanCounter.scan(tx, scan);
     if (results.size() != 1) {
       throw new TransactionException("Invalid scan on order-secondary", tx.getId());
     }
@@ -49,8 +66,7 @@ public class OrderStatusTransaction implements TpccTransaction {
   }
 
   private void generate() {
-    int numWarehouse = config.getNumWarehouse();
-    warehouseId = TpccUtil.randomInt(1, numWarehouse);
+    warehouseId = terminal.nextWarehouseId();
     districtId = TpccUtil.randomInt(1, Warehouse.DISTRICTS);
     byLastName = TpccUtil.randomInt(1, 100) <= 60;
     if (byLastName) {
@@ -61,17 +77,25 @@ public class OrderStatusTransaction implements TpccTransaction {
     }
   }
 
+  @Override
+  public String getName() {
+    return "OrderStatus";
+  }
+
   @Override
   public void execute() throws TransactionException {
+    scanCounter.reset();
     transaction = manager.start();
 
     if (byLastName) {
       if (config.useTableIndex()) {
         customerId =
-            TpccUtil.getCustomerIdByTableIndex(transaction, warehouseId, districtId, lastName);
+            TpccUtil.getCustomerIdByTableIndex(
+                transaction, scanCounter, config.narrowScans(), warehouseId, districtId, lastName);
       } else {
         customerId =
-            TpccUtil.getCustomerIdBySecondaryIndex(transaction, warehouseId, districtId, lastName);
+            TpccUtil.getCustomerIdBySecondaryIndex(
+                transaction, scanCounter, config.narrowScans(), warehouseId, districtId, lastName);
       }
     }
 
@@ -98,7 +122,7 @@ public class OrderStatusTransaction implements TpccTransaction {
 
     // Get order-line
     List<Result> orderLines =
-        transaction.scan(OrderLine.createScan(warehouseId, districtId, orderId));
+        scanCounter.scan(transaction, OrderLine.createScan(warehouseId, districtId, orderId));
     orderLines.forEach(
         line -> {
           int supplyWarehouseId = line.getValue(OrderLine.KEY_SUPPLY_W_ID).get().getAsInt();
@@ -118,4 +142,9 @@ public class OrderStatusTransaction implements TpccTransaction {
   public void abort() throws TransactionException {
     transaction.abort();
   }
+
+  @Override
+  public ScanCounter getScanCounter() {
+    return scanCounter;
+  }
 }
@@ -3,6 +3,8 @@ package com.scalar.db.benchmarks.tpcc.transaction;
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
 import com.scalar.db.api.Result;
+import com.scalar.db.benchmarks.tpcc.ScanCounter;
+import com.scalar.db.benchmarks.tpcc.Terminal;
 import com.scalar.db.benchmarks.tpcc.TpccConfig;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.benchmarks.tpcc.table.Customer;
@@ -16,6 +18,8 @@ import java.util.Optional;
 public class PaymentTransaction implements TpccTransaction {
   private final TpccConfig config;
   private final DistributedTransactionManager manager;
+  private final Terminal terminal;
+  private final ScanCounter scanCounter = new ScanCounter();
   private DistributedTransaction transaction;
   private int warehouseId;
   private int districtId;
@@ -27,15 +31,17 @@ public class PaymentTransaction implements TpccTransaction {
   private float paymentAmount;
   private Date date;
 
-  public PaymentTransaction(DistributedTransactionManager manager, TpccConfig config) {
+  public PaymentTransaction(
+      DistributedTransactionManager manager, TpccConfig config, Terminal terminal) {
     this.manager = manager;
     this.config = config;
+    this.terminal = terminal;
     generate();
   }
 
   private void generate() {
     int numWarehouse = config.getNumWarehouse();
-    warehouseId = TpccUtil.randomInt(1, numWarehouse);
+    warehouseId = terminal.nextWarehouseId();
     districtId = TpccUtil.randomInt(1, Warehouse.DISTRICTS);
     paymentAmount = (float) (TpccUtil.randomInt(100, 500000) / 100.0);
     date = new Date();
@@ -107,8 +113,14 @@ public class PaymentTransaction implements TpccTransaction {
     return warehouseName + "    " + districtName;
   }
 
+  @Override
+  public String getName() {
+    return "Payment";
+  }
+
   @Override
   public void execute() throws TransactionException {
+    scanCounter.reset();
     transaction = manager.start();
 
     // Get and update warehouse
@@ -139,11 +151,21 @@ public class PaymentTransaction implements TpccTransaction {
       if (config.useTableIndex()) {
         customerId =
             TpccUtil.getCustomerIdByTableIndex(
-                transaction, warehouseId, districtId, customerLastName);
+                transaction,
+                scanCounter,
+                config.narrowScans(),
+                warehouseId,
+                districtId,
+                customerLastName);
       } else {
         customerId =
             TpccUtil.getCustomerIdBySecondaryIndex(
-                transaction, warehouseId, districtId, customerLastName);
+                transaction,
+                scanCounter,
+                config.narrowScans(),
+                warehouseId,
+                districtId,
+                customerLastName);
       }
     }
     result =
@@ -197,4 +219,9 @@ public class PaymentTransaction implements TpccTransaction {
   public void abort() throws TransactionException {
     transaction.abort();
   }
+
+  @Override
+  public ScanCounter getScanCounter() {
+    return scanCounter;
+  }
 }
@@ -2,44 +2,73 @@ package com.scalar.db.benchmarks.tpcc.transaction;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Get;
 import com.scalar.db.api.Result;
+import com.scalar.db.benchmarks.ConcurrentOperations;
+import com.scalar.db.benchmarks.tpcc.ScanCounter;
+import com.scalar.db.benchmarks.tpcc.Terminal;
 import com.scalar.db.benchmarks.tpcc.TpccConfig;
 import com.scalar.db.benchmarks.tpcc.TpccUtil;
 import com.scalar.db.benchmarks.tpcc.table.District;
 import com.scalar.db.benchmarks.tpcc.table.Item;
 import com.scalar.db.benchmarks.tpcc.table.OrderLine;
 import com.scalar.db.benchmarks.tpcc.table.Stock;
-import com.scalar.db.benchmarks.tpcc.table.Warehouse;
 import com.scalar.db.exception.transaction.TransactionException;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import javax.annotation.Nullable;
 
+/**
+ * The Stock-Level transaction. By default, the stocks of the items are read one after another. If
+ * the stock read batch size is set, the stocks are read in batches of that size, and the reads in
+ * a batch are issued with {@link ConcurrentOperations}. Each read is still a round trip, but the
+ * transaction waits once per batch instead of once per read.
+ */
 public class StockLevelTransaction implements TpccTransaction {
   private static final int NUM_LATEST_ORDERS = 20;
   private final TpccConfig config;
   private final DistributedTransactionManager manager;
+  private final Terminal terminal;
+  private final ScanCounter scanCounter = new ScanCounter();
+  // null unless the stocks are read in batches
+  private final ConcurrentOperations concurrentOperations;
   private DistributedTransaction transaction;
   private int warehouseId;
   private int districtId;
   private int threshold;
+  private int stockReads;
+  private int stockReadWaits;
 
-  public StockLevelTransaction(DistributedTransactionManager manager, TpccConfig config) {
+  public StockLevelTransaction(
+      DistributedTransactionManager manager,
+      TpccConfig config,
+      Terminal terminal,
+      @Nullable ConcurrentOperations concurrentOperations) {
     this.manager = manager;
     this.config = config;
+    this.terminal = terminal;
+    this.concurrentOperations = concurrentOperations;
     generate();
   }
 
   private void generate() {
-    int numWarehouse = config.getNumWarehouse();
-    warehouseId = TpccUtil.randomInt(1, numWarehouse);
-    districtId = TpccUtil.randomInt(1, Warehouse.DISTRICTS);
+    warehouseId = terminal.nextWarehouseId();
+    districtId = terminal.nextDistrictId();
     threshold = TpccUtil.randomInt(10, 20);
   }
 
+  @Override
+  public String getName() {
+    return "StockLevel";
+  }
+
   @Override
   public void execute() throws TransactionException {
+    scanCounter.reset();
+    stockReads = 0;
+    stockReadWaits = 0;
     transaction = manager.start();
 
     // Get next order ID in the district
@@ -51,33 +80,81 @@ public class StockLevelTransaction implements TpccTransaction {
 
     // Get order-lines of the last 20 orders
     List<Result> orderLines =
-        transaction.scan(
+        scanCounter.scan(
+            transaction,
             OrderLine.createScan(
                 warehouseId, districtId, orderId - NUM_LATEST_ORDERS, orderId - 1));
 
-    // Prepare distinct items
-    Set<Integer> itemSet = new HashSet<>();
+    // Prepare distinct items by sorting the item IDs
+    int[] itemIds = new int[orderLines.size()];
+    int count = 0;
     for (Result line : orderLines) {
       int itemId = line.getValue(OrderLine.KEY_ITEM_ID).get().getAsInt();
       if (itemId != Item.UNUSED_ID) {
-        itemSet.add(itemId);
+        itemIds[count++] = itemId;
+      }
+    }
+    Arrays.sort(itemIds, 0, count);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || itemIds[i] != itemIds[distinct - 1]) {
+        itemIds[distinct++] = itemIds[i];
       }
     }
 
     // Count items where its stock is below the threshold
     int lowStock = 0;
-    for (int itemId : itemSet) {
-      Optional<Result> stock = transaction.get(Stock.createGet(warehouseId, itemId));
-      if (!stock.isPresent()) {
-        throw new TransactionException("Stock not found", transaction.getId());
-      }
-      int quantity = stock.get().getValue(Stock.KEY_QUANTITY).get().getAsInt();
-      if (quantity < threshold) {
-        lowStock++;
+    int batchSize = concurrentOperations != null ? config.getStockReadBatchSize() : 1;
+    for (int from = 0; from < distinct; from += batchSize) {
+      int to = Math.min(from + batchSize, distinct);
+      for (Optional<Result> stock : getStocks(itemIds, from, to)) {
+        if (!stock.isPresent()) {
+          throw new TransactionException("Stock not found", transaction.getId());
+        }
+        int quantity = stock.get().getValue(Stock.KEY_QUANTITY).get().getAsInt();
+        if (quantity < threshold) {
+          lowStock++;
+        }
       }
     }
   }
 
+  private List<Optional<Result>> getStocks(int[] itemIds, int from, int to)
+      throws TransactionException {
+    stockReads += to - from;
+    stockReadWaits++;
+    if (to - from == 1) {
+      List<Optional<Result>> stocks = new ArrayList<>(1);
+      stocks.add(transaction.get(Stock.createGet(warehouseId, itemIds[from])));
+      return stocks;
+    }
+
+    List<Get> gets = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      gets.add(Stock.createGet(warehouseId, itemIds[i]));
+    }
+    return concurrentOperations.getAll(transaction, gets);
+  }
+
+  /**
+   * Returns the number of the stocks read in the last execution.
+   *
+   * @return the number of stock reads
+   */
+  public int getStockReads() {
+    return stockReads;
+  }
+
+  /**
+   * Returns the number of the times that the transaction waited for the stock reads in the last
+   * execution, which is the number of the batches if the stocks are read in batches.
+   *
+   * @return the number of the sequential waits
+   */
+  public int getStockReadWaits() {
+    return stockReadWaits;
+  }
+
   @Override
   public void commit() throws TransactionException {
     transaction.commit();
@@ -87,4 +164,9 @@ public class StockLevelTransaction implements TpccTransaction {
   public void abort() throws TransactionException {
     transaction.abort();
   }
+
+  @Override
+  public ScanCounter getScanCounter() {
+    return scanCounter;
+  }
 }
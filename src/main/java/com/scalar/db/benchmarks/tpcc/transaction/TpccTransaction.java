@@ -1,12 +1,17 @@
 package com.scalar.db.benchmarks.tpcc.transaction;
 
+import com.scalar.db.benchmarks.tpcc.ScanCounter;
 import com.scalar.db.exception.transaction.TransactionException;
 
 public interface TpccTransaction {
 
+  String getName();
+
   void execute() throws TransactionException;
 
   void commit() throws TransactionException;
 
   void abort() throws TransactionException;
+
+  ScanCounter getScanCounter();
 }
@@ -0,0 +1,70 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues the keys of the records inserted by a workload, which follow the loaded records. The
+ * threads acknowledge the keys when their transactions finish, and {@link #getRecordCount()} only
+ * covers the keys below which all the keys have been acknowledged, so that readers do not look for
+ * records that are still being inserted.
+ */
+public class InsertKeySequencer {
+  private final AtomicInteger next;
+  private final Set<Integer> acknowledged = ConcurrentHashMap.newKeySet();
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile int recordCount;
+
+  /**
+   * Constructs a {@code InsertKeySequencer}.
+   *
+   * @param recordCount the number of the loaded records
+   */
+  public InsertKeySequencer(int recordCount) {
+    this.next = new AtomicInteger(recordCount);
+    this.recordCount = recordCount;
+  }
+
+  /**
+   * Issues the key of a record to insert.
+   *
+   * @return a key that has not been issued
+   */
+  public int next() {
+    return next.getAndIncrement();
+  }
+
+  /**
+   * Acknowledges that the transaction inserting a record has finished, whether it committed or
+   * not.
+   *
+   * @param key a key issued by {@link #next()}
+   */
+  public void acknowledge(int key) {
+    acknowledged.add(key);
+    // another thread holding the lock advances the count, and this key is picked up at the latest
+    // by the next acknowledgement
+    if (lock.tryLock()) {
+      try {
+        int count = recordCount;
+        while (acknowledged.remove(count)) {
+          count++;
+        }
+        recordCount = count;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of the records whose insertions have finished without a gap.
+   *
+   * @return the number of records
+   */
+  public int getRecordCount() {
+    return recordCount;
+  }
+}
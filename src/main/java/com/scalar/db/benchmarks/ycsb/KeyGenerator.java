@@ -0,0 +1,237 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+
+import com.scalar.kelpie.config.Config;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Generates the keys of the records accessed by a YCSB workload with the distribution specified by
+ * "request_distribution". All the constants of a distribution are computed once on construction, so
+ * a key is drawn in constant time. A generator is immutable and can be shared by the threads of a
+ * workload, each passing its own {@code Random}.
+ */
+public abstract class KeyGenerator {
+  static final String REQUEST_DISTRIBUTION = "request_distribution";
+  static final String ZIPFIAN_CONSTANT = "zipfian_constant";
+  static final String HOTSPOT_DATA_PERCENTAGE = "hotspot_data_percentage";
+  static final String HOTSPOT_OPS_PERCENTAGE = "hotspot_ops_percentage";
+  static final String UNIFORM = "uniform";
+  static final String ZIPFIAN = "zipfian";
+  static final String SCRAMBLED_ZIPFIAN = "scrambled-zipfian";
+  static final String LATEST = "latest";
+  static final String HOTSPOT = "hotspot";
+  static final String DEFAULT_REQUEST_DISTRIBUTION = UNIFORM;
+  static final double DEFAULT_ZIPFIAN_CONSTANT = 0.99;
+  static final long DEFAULT_HOTSPOT_DATA_PERCENTAGE = 20;
+  static final long DEFAULT_HOTSPOT_OPS_PERCENTAGE = 80;
+
+  /**
+   * Creates a {@code KeyGenerator} with the distribution specified in the config.
+   *
+   * @param config a Kelpie {@code Config}
+   * @param recordCount the number of records
+   * @return a {@code KeyGenerator} object
+   */
+  public static KeyGenerator create(Config config, int recordCount) {
+    return create(config, recordCount, () -> recordCount, DEFAULT_REQUEST_DISTRIBUTION);
+  }
+
+  /**
+   * Creates a {@code KeyGenerator} with the distribution specified in the config. The keys are
+   * drawn from the records at the start of the workload except for the "latest" distribution.
+   *
+   * @param config a Kelpie {@code Config}
+   * @param recordCount the number of records at the start of the workload
+   * @param currentRecordCount a supplier of the current number of records, which the "latest"
+   *     distribution draws the most recently inserted records from
+   * @param defaultDistribution a distribution used if none is specified in the config
+   * @return a {@code KeyGenerator} object
+   */
+  public static KeyGenerator create(
+      Config config,
+      int recordCount,
+      IntSupplier currentRecordCount,
+      String defaultDistribution) {
+    String distribution =
+        config.getUserString(CONFIG_NAME, REQUEST_DISTRIBUTION, defaultDistribution);
+    switch (distribution) {
+      case UNIFORM:
+        return new Uniform(recordCount);
+      case ZIPFIAN:
+        return new Zipfian(recordCount, getZipfianConstant(config));
+      case SCRAMBLED_ZIPFIAN:
+        return new ScrambledZipfian(recordCount);
+      case LATEST:
+        return new Latest(new Zipfian(recordCount, getZipfianConstant(config)), currentRecordCount);
+      case HOTSPOT:
+        return new Hotspot(
+            recordCount,
+            getPercentage(config, HOTSPOT_DATA_PERCENTAGE, DEFAULT_HOTSPOT_DATA_PERCENTAGE),
+            getPercentage(config, HOTSPOT_OPS_PERCENTAGE, DEFAULT_HOTSPOT_OPS_PERCENTAGE));
+      default:
+        throw new RuntimeException("unknown " + REQUEST_DISTRIBUTION + ": " + distribution);
+    }
+  }
+
+  private static double getZipfianConstant(Config config) {
+    if (!config.hasUserValue(CONFIG_NAME, ZIPFIAN_CONSTANT)) {
+      return DEFAULT_ZIPFIAN_CONSTANT;
+    }
+    double constant = Double.parseDouble(config.getUserString(CONFIG_NAME, ZIPFIAN_CONSTANT));
+    if (constant <= 0 || constant >= 1) {
+      throw new RuntimeException(ZIPFIAN_CONSTANT + " must be between 0 and 1 exclusive");
+    }
+    return constant;
+  }
+
+  private static double getPercentage(Config config, String name, long defaultValue) {
+    long percentage = config.getUserLong(CONFIG_NAME, name, defaultValue);
+    if (percentage < 0 || percentage > 100) {
+      throw new RuntimeException(name + " must be between 0 and 100");
+    }
+    return percentage / 100.0;
+  }
+
+  /**
+   * Draws the next key.
+   *
+   * @param random a {@code Random} of the calling thread
+   * @return a key between 0 and the number of records exclusive
+   */
+  public abstract int next(Random random);
+
+  private static class Uniform extends KeyGenerator {
+    private final int recordCount;
+
+    Uniform(int recordCount) {
+      this.recordCount = recordCount;
+    }
+
+    @Override
+    public int next(Random random) {
+      return random.nextInt(recordCount);
+    }
+  }
+
+  /**
+   * The Zipfian distribution with the algorithm in "Quickly Generating Billion-Record Synthetic
+   * Databases" by Gray et al., which is also used by YCSB. Key 0 is the most popular.
+   */
+  private static class Zipfian extends KeyGenerator {
+    private final long items;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+    private final double halfPowTheta;
+
+    Zipfian(long items, double theta) {
+      this(items, theta, zeta(items, theta));
+    }
+
+    Zipfian(long items, double theta, double zetan) {
+      this.items = items;
+      this.zetan = zetan;
+      this.alpha = 1.0 / (1.0 - theta);
+      this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+      this.halfPowTheta = 1.0 + Math.pow(0.5, theta);
+    }
+
+    private static double zeta(long n, double theta) {
+      double sum = 0;
+      for (long i = 1; i <= n; i++) {
+        sum += 1 / Math.pow(i, theta);
+      }
+      return sum;
+    }
+
+    long nextLong(Random random) {
+      double u = random.nextDouble();
+      double uz = u * zetan;
+      if (uz < 1.0) {
+        return 0;
+      }
+      if (uz < halfPowTheta) {
+        return 1;
+      }
+      long key = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+      return Math.min(key, items - 1);
+    }
+
+    @Override
+    public int next(Random random) {
+      return (int) nextLong(random);
+    }
+  }
+
+  /**
+   * The Zipfian distribution with the popular keys spread over the key space by hashing, as in
+   * YCSB. A Zipfian over a large fixed range is used so that its zeta constant is precomputed.
+   */
+  private static class ScrambledZipfian extends KeyGenerator {
+    private static final long ITEM_COUNT = 10000000000L;
+    private static final double ZETAN = 26.46902820178302; // zeta(ITEM_COUNT, 0.99)
+    private static final long FNV_OFFSET_BASIS_64 = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME_64 = 1099511628211L;
+    private final Zipfian zipfian = new Zipfian(ITEM_COUNT, DEFAULT_ZIPFIAN_CONSTANT, ZETAN);
+    private final int recordCount;
+
+    ScrambledZipfian(int recordCount) {
+      this.recordCount = recordCount;
+    }
+
+    private static long fnvHash64(long value) {
+      long hash = FNV_OFFSET_BASIS_64;
+      for (int i = 0; i < 8; i++) {
+        hash ^= value & 0xff;
+        hash *= FNV_PRIME_64;
+        value >>= 8;
+      }
+      return hash & Long.MAX_VALUE;
+    }
+
+    @Override
+    public int next(Random random) {
+      return (int) (fnvHash64(zipfian.nextLong(random)) % recordCount);
+    }
+  }
+
+  /** The Zipfian distribution in which the most recently inserted records are the most popular. */
+  private static class Latest extends KeyGenerator {
+    private final Zipfian zipfian;
+    private final IntSupplier currentRecordCount;
+
+    Latest(Zipfian zipfian, IntSupplier currentRecordCount) {
+      this.zipfian = zipfian;
+      this.currentRecordCount = currentRecordCount;
+    }
+
+    @Override
+    public int next(Random random) {
+      int latest = currentRecordCount.getAsInt() - 1;
+      return Math.max(latest - zipfian.next(random), 0);
+    }
+  }
+
+  /** A given percentage of the operations access a given percentage of the records uniformly. */
+  private static class Hotspot extends KeyGenerator {
+    private final int recordCount;
+    private final int hotRecordCount;
+    private final double hotOpsFraction;
+
+    Hotspot(int recordCount, double hotDataFraction, double hotOpsFraction) {
+      this.recordCount = recordCount;
+      this.hotRecordCount = Math.max((int) (recordCount * hotDataFraction), 1);
+      this.hotOpsFraction = hotOpsFraction;
+    }
+
+    @Override
+    public int next(Random random) {
+      if (hotRecordCount >= recordCount || random.nextDouble() < hotOpsFraction) {
+        return random.nextInt(hotRecordCount);
+      }
+      return hotRecordCount + random.nextInt(recordCount - hotRecordCount);
+    }
+  }
+}
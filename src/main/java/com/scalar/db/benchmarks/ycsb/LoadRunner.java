@@ -1,15 +1,20 @@
 package com.scalar.db.benchmarks.ycsb;
 
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE_PRIMARY;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE_SECONDARY;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getClusteredTable;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getLoadBatchSize;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getLoadConcurrency;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getLoadOverwrite;
-import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadSize;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordsPerPartition;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getUseClusteredTable;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareClusteredGet;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareClusteredPut;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.preparePut;
-import static com.scalar.db.benchmarks.ycsb.YcsbCommon.randomFastChars;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
@@ -18,6 +23,7 @@ import com.scalar.db.api.Put;
 import com.scalar.db.benchmarks.Common;
 import com.scalar.db.exception.transaction.AbortException;
 import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
 import com.scalar.kelpie.config.Config;
 import io.github.resilience4j.retry.Retry;
 import java.util.concurrent.ThreadLocalRandom;
@@ -31,9 +37,13 @@ public class LoadRunner {
   private final int id;
   private final int concurrency;
   private final int recordCount;
-  private final char[] payload;
+  private final PayloadGenerator payloadGenerator;
   private final int batchSize;
   private final boolean overwrite;
+  private final boolean useClusteredTable;
+  private final int recordsPerPartition;
+  private final String table;
+  private final String clusteredTable;
 
   public LoadRunner(Config config, DistributedTransactionManager manager, int threadId) {
     this.id = threadId;
@@ -41,8 +51,12 @@ public class LoadRunner {
     concurrency = getLoadConcurrency(config);
     batchSize = getLoadBatchSize(config);
     recordCount = getRecordCount(config);
-    payload = new char[getPayloadSize(config)];
+    payloadGenerator = new PayloadGenerator(config);
     overwrite = getLoadOverwrite(config);
+    useClusteredTable = getUseClusteredTable(config);
+    recordsPerPartition = getRecordsPerPartition(config);
+    table = getTable(config);
+    clusteredTable = getClusteredTable(config);
   }
 
   public void run() {
@@ -73,11 +87,11 @@ public class LoadRunner {
           try {
             transaction = manager.start();
             for (int i = startId; i < endId; ++i) {
-              randomFastChars(ThreadLocalRandom.current(), payload);
+              Column<?>[] payloads = payloadGenerator.nextRecord(ThreadLocalRandom.current());
               if (forMultiStorage) {
-                putForMultiStorage(transaction, i, new String(payload));
+                putForMultiStorage(transaction, i, payloads);
               } else {
-                putForSingleStorage(transaction, i, new String(payload));
+                putForSingleStorage(transaction, i, payloads);
               }
             }
             transaction.commit();
@@ -104,26 +118,34 @@ public class LoadRunner {
     }
   }
 
-  private void putForSingleStorage(DistributedTransaction transaction, int userId, String payload)
+  private void putForSingleStorage(
+      DistributedTransaction transaction, int userId, Column<?>[] payloads)
       throws TransactionException {
     if (overwrite) {
-      Get get = prepareGet(userId);
+      Get get =
+          useClusteredTable
+              ? prepareClusteredGet(clusteredTable, userId, recordsPerPartition)
+              : prepareGet(NAMESPACE, table, userId);
       transaction.get(get);
     }
-    Put put = preparePut(userId, payload);
+    Put put =
+        useClusteredTable
+            ? prepareClusteredPut(clusteredTable, userId, recordsPerPartition, payloads)
+            : preparePut(NAMESPACE, table, userId, payloads);
     transaction.put(put);
   }
 
-  private void putForMultiStorage(DistributedTransaction transaction, int userId, String payload)
+  private void putForMultiStorage(
+      DistributedTransaction transaction, int userId, Column<?>[] payloads)
       throws TransactionException {
     if (overwrite) {
-      Get primaryGet = prepareGet(NAMESPACE_PRIMARY, userId);
-      Get secondaryGet = prepareGet(NAMESPACE_SECONDARY, userId);
+      Get primaryGet = prepareGet(NAMESPACE_PRIMARY, table, userId);
+      Get secondaryGet = prepareGet(NAMESPACE_SECONDARY, table, userId);
       transaction.get(primaryGet);
       transaction.get(secondaryGet);
     }
-    Put primaryPut = preparePut(NAMESPACE_PRIMARY, userId, payload);
-    Put secondaryPut = preparePut(NAMESPACE_SECONDARY, userId, payload);
+    Put primaryPut = preparePut(NAMESPACE_PRIMARY, table, userId, payloads);
+    Put secondaryPut = preparePut(NAMESPACE_SECONDARY, table, userId, payloads);
     transaction.put(primaryPut);
     transaction.put(secondaryPut);
   }
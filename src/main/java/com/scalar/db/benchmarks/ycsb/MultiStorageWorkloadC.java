@@ -5,11 +5,14 @@ import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE_PRIMARY;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE_SECONDARY;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
 import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
@@ -20,6 +23,7 @@ import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 
 /**
  * Multi-storage workload Fe: Same number of read operation for both primary and secondary database.
@@ -27,46 +31,57 @@ import javax.json.Json;
 public class MultiStorageWorkloadC extends TimeBasedProcessor {
   private static final long DEFAULT_OPS_PER_TX = 2; // 2 read operations per database
   private final DistributedTransactionManager manager;
-  private final int recordCount;
+  private final KeyGenerator keyGenerator;
   private final int opsPerTx;
+  private final String table;
 
   private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LatencyRecorder latencyRecorder;
 
   public MultiStorageWorkloadC(Config config) {
     super(config);
     this.manager = Common.getTransactionManager(config);
-    this.recordCount = getRecordCount(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.latencyRecorder = new LatencyRecorder(config);
+    this.keyGenerator = KeyGenerator.create(config, getRecordCount(config));
     this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
+    this.table = getTable(config);
   }
 
   @Override
   public void executeEach() throws TransactionException {
+    long start = arrivalSchedule.awaitNext();
     List<Integer> primaryIds = new ArrayList<>(opsPerTx);
     List<Integer> secondaryIds = new ArrayList<>(opsPerTx);
     for (int i = 0; i < opsPerTx; ++i) {
-      primaryIds.add(ThreadLocalRandom.current().nextInt(recordCount));
-      secondaryIds.add(ThreadLocalRandom.current().nextInt(recordCount));
+      primaryIds.add(keyGenerator.next(ThreadLocalRandom.current()));
+      secondaryIds.add(keyGenerator.next(ThreadLocalRandom.current()));
     }
 
     while (true) {
+      long attemptStart = System.nanoTime();
       DistributedTransaction transaction = manager.start();
       try {
         for (int userId : primaryIds) {
-          transaction.get(prepareGet(NAMESPACE_PRIMARY, userId));
+          transaction.get(prepareGet(NAMESPACE_PRIMARY, table, userId));
         }
         for (int userId : secondaryIds) {
-          transaction.get(prepareGet(NAMESPACE_SECONDARY, userId));
+          transaction.get(prepareGet(NAMESPACE_SECONDARY, table, userId));
         }
         transaction.commit();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         break;
       } catch (CrudConflictException | CommitConflictException e) {
         transaction.abort();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         transactionRetryCount.increment();
       } catch (Exception e) {
         transaction.abort();
         throw e;
       }
     }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
   }
 
   @Override
@@ -77,9 +92,10 @@ public class MultiStorageWorkloadC extends TimeBasedProcessor {
       logWarn("Failed to close the transaction manager", e);
     }
 
-    setState(
+    JsonObjectBuilder state =
         Json.createObjectBuilder()
-            .add("transaction-retry-count", transactionRetryCount.toString())
-            .build());
+            .add("transaction-retry-count", transactionRetryCount.toString());
+    latencyRecorder.close(state);
+    setState(state.build());
   }
 }
@@ -4,24 +4,26 @@ import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE_PRIMARY;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE_SECONDARY;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
-import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadSize;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.preparePut;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
 import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.TimeBasedProcessor;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 
 /**
  * Multi-storage workload Fe: Same number of read-modify-write operation for both primary and
@@ -32,57 +34,66 @@ public class MultiStorageWorkloadF extends TimeBasedProcessor {
   // operation)
   private static final long DEFAULT_OPS_PER_TX = 1;
   private final DistributedTransactionManager manager;
-  private final int recordCount;
+  private final KeyGenerator keyGenerator;
   private final int opsPerTx;
-  private final int payloadSize;
+  private final String table;
+  private final PayloadGenerator payloadGenerator;
 
   private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LatencyRecorder latencyRecorder;
 
   public MultiStorageWorkloadF(Config config) {
     super(config);
     this.manager = Common.getTransactionManager(config);
-    this.recordCount = getRecordCount(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.latencyRecorder = new LatencyRecorder(config);
+    this.keyGenerator = KeyGenerator.create(config, getRecordCount(config));
     this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
-    this.payloadSize = getPayloadSize(config);
+    this.table = getTable(config);
+    this.payloadGenerator = new PayloadGenerator(config);
   }
 
   @Override
   public void executeEach() throws TransactionException {
-    List<Integer> primaryIds = new ArrayList<>(opsPerTx);
-    List<Integer> secondaryIds = new ArrayList<>(opsPerTx);
-    List<String> payloads = new ArrayList<>(opsPerTx);
-    char[] payload = new char[payloadSize];
+    long start = arrivalSchedule.awaitNext();
+    int[] primaryIds = new int[opsPerTx];
+    int[] secondaryIds = new int[opsPerTx];
+    Column<?>[] payloads = new Column<?>[opsPerTx];
     for (int i = 0; i < opsPerTx; ++i) {
-      primaryIds.add(ThreadLocalRandom.current().nextInt(recordCount));
-      secondaryIds.add(ThreadLocalRandom.current().nextInt(recordCount));
-
-      YcsbCommon.randomFastChars(ThreadLocalRandom.current(), payload);
-      payloads.add(new String(payload)); // use same payload for primary and secondary
+      primaryIds[i] = keyGenerator.next(ThreadLocalRandom.current());
+      secondaryIds[i] = keyGenerator.next(ThreadLocalRandom.current());
+      // use same payload for primary and secondary
+      payloads[i] = payloadGenerator.next(ThreadLocalRandom.current());
     }
 
     while (true) {
+      long attemptStart = System.nanoTime();
       DistributedTransaction transaction = manager.start();
       try {
-        for (int i = 0; i < primaryIds.size(); i++) {
-          int userId = primaryIds.get(i);
-          transaction.get(prepareGet(NAMESPACE_PRIMARY, userId));
-          transaction.put(preparePut(NAMESPACE_PRIMARY, userId, payloads.get(i)));
+        for (int i = 0; i < primaryIds.length; i++) {
+          int userId = primaryIds[i];
+          transaction.get(prepareGet(NAMESPACE_PRIMARY, table, userId));
+          transaction.put(preparePut(NAMESPACE_PRIMARY, table, userId, payloads[i]));
         }
-        for (int i = 0; i < secondaryIds.size(); i++) {
-          int userId = secondaryIds.get(i);
-          transaction.get(prepareGet(NAMESPACE_SECONDARY, userId));
-          transaction.put(preparePut(NAMESPACE_SECONDARY, userId, payloads.get(i)));
+        for (int i = 0; i < secondaryIds.length; i++) {
+          int userId = secondaryIds[i];
+          transaction.get(prepareGet(NAMESPACE_SECONDARY, table, userId));
+          transaction.put(preparePut(NAMESPACE_SECONDARY, table, userId, payloads[i]));
         }
         transaction.commit();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         break;
       } catch (CrudConflictException | CommitConflictException e) {
         transaction.abort();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         transactionRetryCount.increment();
       } catch (Exception e) {
         transaction.abort();
         throw e;
       }
     }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
   }
 
   @Override
@@ -93,9 +104,10 @@ public class MultiStorageWorkloadF extends TimeBasedProcessor {
       logWarn("Failed to close the transaction manager", e);
     }
 
-    setState(
+    JsonObjectBuilder state =
         Json.createObjectBuilder()
-            .add("transaction-retry-count", transactionRetryCount.toString())
-            .build());
+            .add("transaction-retry-count", transactionRetryCount.toString());
+    latencyRecorder.close(state);
+    setState(state.build());
   }
 }
@@ -0,0 +1,157 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadRingSize;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadSize;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadType;
+
+import com.scalar.db.io.BlobColumn;
+import com.scalar.db.io.Column;
+import com.scalar.db.io.TextColumn;
+import com.scalar.kelpie.config.Config;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates the payload columns of the records written by the YCSB workloads. The payloads are
+ * written to the "payload" text column, or to the "payload_blob" blob column of the blob tables if
+ * "payload_type" is set to "blob". If the records have multiple fields, an update writes one
+ * randomly chosen text field and a new record has all the fields. By default, a random payload is
+ * generated for each write. If "payload_ring_size" is set, the payloads are picked from a ring of
+ * random payloads generated in advance, so that a write references an existing {@code String} or a
+ * read-only {@code ByteBuffer} instead of allocating a new one.
+ */
+public class PayloadGenerator {
+  private final int payloadSize;
+  private final boolean blob;
+  private final String[] textRing; // null unless the text ring is used
+  private final ByteBuffer[] blobRing; // null unless the blob ring is used
+  private final ThreadLocal<char[]> buffers;
+  private final RecordFields fields;
+
+  /**
+   * Constructs a {@code PayloadGenerator} with the payload size, the payload type, the ring size
+   * and the record fields in the config.
+   *
+   * @param config a benchmark config
+   */
+  public PayloadGenerator(Config config) {
+    this(
+        getPayloadSize(config),
+        getPayloadType(config),
+        getPayloadRingSize(config),
+        new RecordFields(config));
+  }
+
+  /**
+   * Constructs a {@code PayloadGenerator} of text payloads.
+   *
+   * @param payloadSize the number of characters in a payload
+   * @param ringSize the number of payloads generated in advance, or 0 to generate a payload for
+   *     each write
+   */
+  public PayloadGenerator(int payloadSize, int ringSize) {
+    this(payloadSize, YcsbCommon.PAYLOAD_TYPE_TEXT, ringSize, new RecordFields(0, 0, true));
+  }
+
+  /**
+   * Constructs a {@code PayloadGenerator}.
+   *
+   * @param payloadSize the number of characters or bytes in a payload, which is replaced with the
+   *     field length if the records have multiple fields
+   * @param payloadType "text" or "blob"
+   * @param ringSize the number of payloads generated in advance, or 0 to generate a payload for
+   *     each write
+   * @param fields the fields of a record
+   */
+  public PayloadGenerator(int payloadSize, String payloadType, int ringSize, RecordFields fields) {
+    if (payloadSize < 0) {
+      throw new IllegalArgumentException(YcsbCommon.PAYLOAD_SIZE + " must not be negative.");
+    }
+    if (ringSize < 0) {
+      throw new IllegalArgumentException(YcsbCommon.PAYLOAD_RING_SIZE + " must not be negative.");
+    }
+    switch (payloadType) {
+      case YcsbCommon.PAYLOAD_TYPE_TEXT:
+        this.blob = false;
+        break;
+      case YcsbCommon.PAYLOAD_TYPE_BLOB:
+        this.blob = true;
+        break;
+      default:
+        throw new RuntimeException("unknown " + YcsbCommon.PAYLOAD_TYPE + ": " + payloadType);
+    }
+    if (blob && fields.isMultiField()) {
+      throw new RuntimeException(
+          "the blob payload type can't be used with " + RecordFields.FIELD_COUNT);
+    }
+    this.payloadSize = fields.isMultiField() ? fields.getFieldLength() : payloadSize;
+    this.fields = fields;
+    this.buffers = ThreadLocal.withInitial(() -> new char[this.payloadSize]);
+    this.textRing = !blob && ringSize > 0 ? new String[ringSize] : null;
+    this.blobRing = blob && ringSize > 0 ? new ByteBuffer[ringSize] : null;
+    for (int i = 0; i < ringSize; i++) {
+      if (blob) {
+        blobRing[i] = ByteBuffer.wrap(randomBytes(ThreadLocalRandom.current())).asReadOnlyBuffer();
+      } else {
+        textRing[i] = randomText(ThreadLocalRandom.current());
+      }
+    }
+  }
+
+  /**
+   * Returns a column of a random payload, which is a randomly chosen field if the records have
+   * multiple fields. The value of the returned column can be shared with other writes when the ring
+   * is used.
+   *
+   * @param random a random number generator
+   * @return a payload column
+   */
+  public Column<?> next(Random random) {
+    if (blob) {
+      // a duplicate shares the content but has its own position for each write
+      ByteBuffer payload =
+          blobRing != null
+              ? blobRing[random.nextInt(blobRing.length)].duplicate()
+              : ByteBuffer.wrap(randomBytes(random));
+      return BlobColumn.of(YcsbCommon.PAYLOAD_BLOB, payload);
+    }
+    String name = fields.isMultiField() ? fields.nextField(random) : YcsbCommon.PAYLOAD;
+    return TextColumn.of(name, nextText(random));
+  }
+
+  /**
+   * Returns the columns of a new record, which are all the fields if the records have multiple
+   * fields.
+   *
+   * @param random a random number generator
+   * @return payload columns
+   */
+  public Column<?>[] nextRecord(Random random) {
+    if (!fields.isMultiField()) {
+      return new Column<?>[] {next(random)};
+    }
+    Column<?>[] columns = new Column<?>[fields.getFieldCount()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = TextColumn.of(fields.getName(i), nextText(random));
+    }
+    return columns;
+  }
+
+  private String nextText(Random random) {
+    return textRing != null ? textRing[random.nextInt(textRing.length)] : randomText(random);
+  }
+
+  private String randomText(Random random) {
+    char[] buffer = buffers.get();
+    YcsbCommon.randomFastChars(random, buffer);
+    return new String(buffer);
+  }
+
+  private byte[] randomBytes(Random random) {
+    // a new array for each payload since a column can keep referring to it until the commit
+    byte[] bytes = new byte[payloadSize];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,51 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Result;
+import com.scalar.db.benchmarks.ConcurrentOperations;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.kelpie.config.Config;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Issues the reads of a transaction together when "pipelined_ops" is set to true. The reads are
+ * issued with {@link ConcurrentOperations}, and the transaction waits for all of them at once
+ * instead of for one read after another, although each read is still a round trip. The writes are
+ * submitted with a single {@code mutate()} by the workloads.
+ */
+public class PipelinedOperations {
+  static final String PIPELINED_OPS = "pipelined_ops";
+  private final ConcurrentOperations concurrentOperations;
+
+  /**
+   * Constructs a {@code PipelinedOperations}.
+   *
+   * @param config a Kelpie {@code Config}
+   * @param clients the number of the clients
+   * @param opsPerTx the number of the reads in a transaction
+   */
+  public PipelinedOperations(Config config, int clients, int opsPerTx) {
+    // the calling thread issues one of the reads
+    this.concurrentOperations =
+        new ConcurrentOperations(config, PIPELINED_OPS, clients * (opsPerTx - 1));
+  }
+
+  /**
+   * Reads records in a transaction concurrently.
+   *
+   * @param transaction a transaction
+   * @param gets the reads
+   * @return the results in the order of the reads
+   * @throws TransactionException if any of the reads fails
+   */
+  public List<Optional<Result>> getAll(DistributedTransaction transaction, List<Get> gets)
+      throws TransactionException {
+    return concurrentOperations.getAll(transaction, gets);
+  }
+
+  public void close() {
+    concurrentOperations.close();
+  }
+}
@@ -0,0 +1,109 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+
+import com.scalar.kelpie.config.Config;
+import java.util.Random;
+import javax.annotation.Nullable;
+
+/**
+ * The fields of a YCSB record. By default, a record has the single "payload" column. If
+ * "field_count" is set, a record has the text columns "field0", "field1", and so on, with
+ * "field_length" characters each as in the original YCSB, and is stored in "usertable_fields"
+ * instead of "usertable". In that case, an update writes one randomly chosen field, and a read
+ * projects one randomly chosen field if "read_all_fields" is set to false.
+ */
+public class RecordFields {
+  static final String FIELD_COUNT = "field_count";
+  static final String FIELD_LENGTH = "field_length";
+  static final String READ_ALL_FIELDS = "read_all_fields";
+  static final String FIELD_PREFIX = "field";
+  static final long DEFAULT_FIELD_COUNT = 0; // the single payload column
+  static final long DEFAULT_FIELD_LENGTH = 100;
+  static final int MAX_FIELD_COUNT = 10; // the fields defined in the provided schemas
+  private final String[] names;
+  private final int fieldLength;
+  private final boolean readAllFields;
+
+  /**
+   * Constructs a {@code RecordFields} with the field settings in the config.
+   *
+   * @param config a benchmark config
+   */
+  public RecordFields(Config config) {
+    this(
+        (int) config.getUserLong(CONFIG_NAME, FIELD_COUNT, DEFAULT_FIELD_COUNT),
+        (int) config.getUserLong(CONFIG_NAME, FIELD_LENGTH, DEFAULT_FIELD_LENGTH),
+        config.getUserBoolean(CONFIG_NAME, READ_ALL_FIELDS, true));
+  }
+
+  /**
+   * Constructs a {@code RecordFields}.
+   *
+   * @param fieldCount the number of fields, or 0 to use the single payload column
+   * @param fieldLength the number of characters in a field
+   * @param readAllFields whether or not a read fetches all the fields
+   */
+  public RecordFields(int fieldCount, int fieldLength, boolean readAllFields) {
+    if (fieldCount < 0) {
+      throw new RuntimeException(FIELD_COUNT + " must not be negative");
+    }
+    if (fieldCount > MAX_FIELD_COUNT) {
+      throw new RuntimeException(FIELD_COUNT + " must not be greater than " + MAX_FIELD_COUNT);
+    }
+    if (fieldLength < 0) {
+      throw new RuntimeException(FIELD_LENGTH + " must not be negative");
+    }
+    this.names = new String[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      names[i] = FIELD_PREFIX + i;
+    }
+    this.fieldLength = fieldLength;
+    this.readAllFields = readAllFields;
+  }
+
+  /**
+   * Returns whether or not a record has multiple fields instead of the single payload column.
+   *
+   * @return true if a record has multiple fields
+   */
+  public boolean isMultiField() {
+    return names.length > 0;
+  }
+
+  public int getFieldCount() {
+    return names.length;
+  }
+
+  public int getFieldLength() {
+    return fieldLength;
+  }
+
+  public String getName(int index) {
+    return names[index];
+  }
+
+  /**
+   * Chooses a field to update.
+   *
+   * @param random a random number generator
+   * @return the name of a field
+   */
+  public String nextField(Random random) {
+    return names[random.nextInt(names.length)];
+  }
+
+  /**
+   * Chooses a field to read.
+   *
+   * @param random a random number generator
+   * @return the name of a field, or null if a read fetches all the columns
+   */
+  @Nullable
+  public String nextReadField(Random random) {
+    if (!isMultiField() || readAllFields) {
+      return null;
+    }
+    return nextField(random);
+  }
+}
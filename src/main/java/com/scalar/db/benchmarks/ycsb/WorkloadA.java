@@ -1,25 +1,29 @@
 package com.scalar.db.benchmarks.ycsb;
 
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
-import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadSize;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.preparePut;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
 import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.benchmarks.LogicalClients;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.TimeBasedProcessor;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 
 /**
  * Workload A: Update heavy workload. This workload has a mix of 50/50 reads and writes. The writes
@@ -29,18 +33,28 @@ public class WorkloadA extends TimeBasedProcessor {
   private static final long DEFAULT_OPS_PER_TX = 2; // one read operation and one write operation
   private static final String USE_READ_MODIFY_WRITE = "use_read_modify_write";
   private final DistributedTransactionManager manager;
-  private final int recordCount;
+  private final KeyGenerator keyGenerator;
   private final int opsPerTx;
   private final boolean useReadModifyWrite;
-  private final int payloadSize;
+  private final PayloadGenerator payloadGenerator;
+  private final RecordFields recordFields;
+  private final String table;
 
   private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LogicalClients logicalClients;
+  private final LatencyRecorder latencyRecorder;
 
   public WorkloadA(Config config) {
     super(config);
     this.manager = Common.getTransactionManager(config);
-    this.recordCount = getRecordCount(config);
-    this.payloadSize = getPayloadSize(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.logicalClients = new LogicalClients(config, arrivalSchedule);
+    this.latencyRecorder = new LatencyRecorder(config);
+    this.keyGenerator = KeyGenerator.create(config, getRecordCount(config));
+    this.payloadGenerator = new PayloadGenerator(config);
+    this.recordFields = new RecordFields(config);
+    this.table = getTable(config);
     this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
     if (opsPerTx % 2 != 0) {
       throw new IllegalArgumentException(OPS_PER_TX + " must be a multiple of 2.");
@@ -49,49 +63,56 @@ public class WorkloadA extends TimeBasedProcessor {
   }
 
   @Override
-  public void executeEach() throws TransactionException {
+  public void executeEach() throws Exception {
+    logicalClients.execute(this::execute);
+  }
+
+  private void execute(long start) throws TransactionException {
     int readOpsPerTx = opsPerTx / 2;
     int writeOpsPerTx = opsPerTx / 2;
 
-    List<Integer> readUserIds = new ArrayList<>(readOpsPerTx);
+    int[] readUserIds = new int[readOpsPerTx];
     for (int i = 0; i < readOpsPerTx; ++i) {
-      readUserIds.add(ThreadLocalRandom.current().nextInt(recordCount));
+      readUserIds[i] = keyGenerator.next(ThreadLocalRandom.current());
     }
 
-    List<Integer> writeUserIds = new ArrayList<>(writeOpsPerTx);
-    List<String> payloads = new ArrayList<>(writeOpsPerTx);
-    char[] payload = new char[payloadSize];
+    int[] writeUserIds = new int[writeOpsPerTx];
+    Column<?>[] payloads = new Column<?>[writeOpsPerTx];
     for (int i = 0; i < writeOpsPerTx; ++i) {
-      writeUserIds.add(ThreadLocalRandom.current().nextInt(recordCount));
-
-      YcsbCommon.randomFastChars(ThreadLocalRandom.current(), payload);
-      payloads.add(new String(payload));
+      writeUserIds[i] = keyGenerator.next(ThreadLocalRandom.current());
+      payloads[i] = payloadGenerator.next(ThreadLocalRandom.current());
     }
 
     while (true) {
+      long attemptStart = System.nanoTime();
       DistributedTransaction transaction = manager.start();
       try {
-        for (Integer readUserId : readUserIds) {
-          transaction.get(prepareGet(readUserId));
+        for (int readUserId : readUserIds) {
+          String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+          transaction.get(prepareGet(NAMESPACE, table, readUserId, readField));
         }
 
-        for (int i = 0; i < writeUserIds.size(); i++) {
-          int writeUserId = writeUserIds.get(i);
+        for (int i = 0; i < writeUserIds.length; i++) {
+          int writeUserId = writeUserIds[i];
           if (useReadModifyWrite) {
-            transaction.get(prepareGet(writeUserId));
+            String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+            transaction.get(prepareGet(NAMESPACE, table, writeUserId, readField));
           }
-          transaction.put(preparePut(writeUserId, payloads.get(i)));
+          transaction.put(preparePut(NAMESPACE, table, writeUserId, payloads[i]));
         }
         transaction.commit();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         break;
       } catch (CrudConflictException | CommitConflictException e) {
         transaction.abort();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         transactionRetryCount.increment();
       } catch (Exception e) {
         transaction.abort();
         throw e;
       }
     }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
   }
 
   @Override
@@ -102,9 +123,11 @@ public class WorkloadA extends TimeBasedProcessor {
       logWarn("Failed to close the transaction manager", e);
     }
 
-    setState(
+    JsonObjectBuilder state =
         Json.createObjectBuilder()
-            .add("transaction-retry-count", transactionRetryCount.toString())
-            .build());
+            .add("transaction-retry-count", transactionRetryCount.toString());
+    latencyRecorder.close(state);
+    logicalClients.close(state);
+    setState(state.build());
   }
 }
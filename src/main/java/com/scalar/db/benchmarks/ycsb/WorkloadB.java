@@ -0,0 +1,117 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.preparePut;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
+import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.modules.TimeBasedProcessor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Workload B: Read mostly workload. Each operation is a read with a probability of 95% and a write
+ * otherwise. The writes can be changed to read-modify-write if "use_read_modify_write" is set to
+ * true.
+ */
+public class WorkloadB extends TimeBasedProcessor {
+  private static final long DEFAULT_OPS_PER_TX = 2;
+  private static final int READ_PERCENTAGE = 95;
+  private static final String USE_READ_MODIFY_WRITE = "use_read_modify_write";
+  private final DistributedTransactionManager manager;
+  private final KeyGenerator keyGenerator;
+  private final int opsPerTx;
+  private final boolean useReadModifyWrite;
+  private final PayloadGenerator payloadGenerator;
+  private final RecordFields recordFields;
+  private final String table;
+
+  private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LatencyRecorder latencyRecorder;
+
+  public WorkloadB(Config config) {
+    super(config);
+    this.manager = Common.getTransactionManager(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.latencyRecorder = new LatencyRecorder(config);
+    this.keyGenerator = KeyGenerator.create(config, getRecordCount(config));
+    this.payloadGenerator = new PayloadGenerator(config);
+    this.recordFields = new RecordFields(config);
+    this.table = getTable(config);
+    this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
+    useReadModifyWrite = config.getUserBoolean(CONFIG_NAME, USE_READ_MODIFY_WRITE, false);
+  }
+
+  @Override
+  public void executeEach() throws TransactionException {
+    long start = arrivalSchedule.awaitNext();
+    int[] userIds = new int[opsPerTx];
+    Column<?>[] payloads = new Column<?>[opsPerTx]; // null for a read
+    for (int i = 0; i < opsPerTx; ++i) {
+      userIds[i] = keyGenerator.next(ThreadLocalRandom.current());
+      if (ThreadLocalRandom.current().nextInt(100) >= READ_PERCENTAGE) {
+        payloads[i] = payloadGenerator.next(ThreadLocalRandom.current());
+      }
+    }
+
+    while (true) {
+      long attemptStart = System.nanoTime();
+      DistributedTransaction transaction = manager.start();
+      try {
+        for (int i = 0; i < userIds.length; i++) {
+          int userId = userIds[i];
+          Column<?> writePayload = payloads[i];
+          if (writePayload == null || useReadModifyWrite) {
+            String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+            transaction.get(prepareGet(NAMESPACE, table, userId, readField));
+          }
+          if (writePayload != null) {
+            transaction.put(preparePut(NAMESPACE, table, userId, writePayload));
+          }
+        }
+        transaction.commit();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
+        break;
+      } catch (CrudConflictException | CommitConflictException e) {
+        transaction.abort();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
+        transactionRetryCount.increment();
+      } catch (Exception e) {
+        transaction.abort();
+        throw e;
+      }
+    }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
+  }
+
+  @Override
+  public void close() {
+    try {
+      manager.close();
+    } catch (Exception e) {
+      logWarn("Failed to close the transaction manager", e);
+    }
+
+    JsonObjectBuilder state =
+        Json.createObjectBuilder()
+            .add("transaction-retry-count", transactionRetryCount.toString());
+    latencyRecorder.close(state);
+    setState(state.build());
+  }
+}
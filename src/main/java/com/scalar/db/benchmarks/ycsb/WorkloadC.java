@@ -1,13 +1,22 @@
 package com.scalar.db.benchmarks.ycsb;
 
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
 
+import com.scalar.db.api.Consistency;
+import com.scalar.db.api.DistributedStorage;
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Get;
+import com.scalar.db.benchmarks.ArrivalSchedule;
 import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.benchmarks.LogicalClients;
+import com.scalar.db.exception.storage.ExecutionException;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
@@ -18,59 +27,173 @@ import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 
-/** Workload C: Read only. */
+/**
+ * Workload C: Read only. The reads can be executed in the following ways with "read_mode" to
+ * compare the overhead of the transactional reads.
+ *
+ * <ul>
+ *   <li>"transaction": in a transaction that is committed (default)
+ *   <li>"read_only": in a transaction that is rolled back instead of committed, which skips the
+ *       commit protocol
+ *   <li>"one_operation": as single-operation transactions of the transaction manager
+ *   <li>"storage": through the storage API without transactions, with the consistency specified
+ *       by "storage_consistency"
+ * </ul>
+ *
+ * <p>The reads in a transaction are issued together if "pipelined_ops" is set to true.
+ */
 public class WorkloadC extends TimeBasedProcessor {
   private static final long DEFAULT_OPS_PER_TX = 2; // two read operations
-  private final DistributedTransactionManager manager;
-  private final int recordCount;
+  static final String READ_MODE = "read_mode";
+  static final String STORAGE_CONSISTENCY = "storage_consistency";
+  static final String READ_MODE_TRANSACTION = "transaction";
+  static final String READ_MODE_READ_ONLY = "read_only";
+  static final String READ_MODE_ONE_OPERATION = "one_operation";
+  static final String READ_MODE_STORAGE = "storage";
+  private final DistributedTransactionManager manager; // null in the storage mode
+  private final DistributedStorage storage; // null unless in the storage mode
+  private final KeyGenerator keyGenerator;
   private final int opsPerTx;
+  private final RecordFields recordFields;
+  private final String table;
+  private final String readMode;
+  private final Consistency storageConsistency;
+  private final PipelinedOperations pipelinedOperations; // null unless the ops are pipelined
 
   private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LogicalClients logicalClients;
+  private final LatencyRecorder latencyRecorder;
 
   public WorkloadC(Config config) {
     super(config);
-    this.manager = Common.getTransactionManager(config);
-    this.recordCount = getRecordCount(config);
+    this.readMode = config.getUserString(CONFIG_NAME, READ_MODE, READ_MODE_TRANSACTION);
+    switch (readMode) {
+      case READ_MODE_TRANSACTION:
+      case READ_MODE_READ_ONLY:
+      case READ_MODE_ONE_OPERATION:
+        this.manager = Common.getTransactionManager(config);
+        this.storage = null;
+        break;
+      case READ_MODE_STORAGE:
+        this.manager = null;
+        this.storage = Common.getStorage(config);
+        break;
+      default:
+        throw new RuntimeException("unknown " + READ_MODE + ": " + readMode);
+    }
+    String consistency = config.getUserString(CONFIG_NAME, STORAGE_CONSISTENCY, "sequential");
+    try {
+      this.storageConsistency = Consistency.valueOf(consistency.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new RuntimeException("unknown " + STORAGE_CONSISTENCY + ": " + consistency, e);
+    }
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.logicalClients = new LogicalClients(config, arrivalSchedule);
+    this.latencyRecorder = new LatencyRecorder(config);
+    this.keyGenerator = KeyGenerator.create(config, getRecordCount(config));
+    this.recordFields = new RecordFields(config);
+    this.table = getTable(config);
     this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
+    this.pipelinedOperations =
+        config.getUserBoolean(CONFIG_NAME, PipelinedOperations.PIPELINED_OPS, false)
+            ? new PipelinedOperations(config, logicalClients.getClientCount(config), opsPerTx)
+            : null;
   }
 
   @Override
-  public void executeEach() throws TransactionException {
-    List<Integer> userIds = new ArrayList<>(opsPerTx);
+  public void executeEach() throws Exception {
+    logicalClients.execute(this::execute);
+  }
+
+  private void execute(long start) throws TransactionException, ExecutionException {
+    int[] userIds = new int[opsPerTx];
     for (int i = 0; i < opsPerTx; ++i) {
-      userIds.add(ThreadLocalRandom.current().nextInt(recordCount));
+      userIds[i] = keyGenerator.next(ThreadLocalRandom.current());
+    }
+
+    if (storage != null) {
+      for (int userId : userIds) {
+        String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+        storage.get(prepareGet(NAMESPACE, table, userId, readField, storageConsistency));
+      }
+      latencyRecorder.record(YcsbCommon.TRANSACTION, start);
+      return;
     }
 
     while (true) {
-      DistributedTransaction transaction = manager.start();
+      long attemptStart = System.nanoTime();
       try {
-        for (Integer userId : userIds) {
-          transaction.get(prepareGet(userId));
+        if (readMode.equals(READ_MODE_ONE_OPERATION)) {
+          for (int userId : userIds) {
+            String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+            manager.get(prepareGet(NAMESPACE, table, userId, readField));
+          }
+        } else {
+          readInTransaction(userIds);
         }
-        transaction.commit();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         break;
       } catch (CrudConflictException | CommitConflictException e) {
-        transaction.abort();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         transactionRetryCount.increment();
-      } catch (Exception e) {
-        transaction.abort();
-        throw e;
       }
     }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
+  }
+
+  private void readInTransaction(int[] userIds) throws TransactionException {
+    DistributedTransaction transaction = manager.start();
+    try {
+      if (pipelinedOperations != null) {
+        List<Get> gets = new ArrayList<>(userIds.length);
+        for (int userId : userIds) {
+          String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+          gets.add(prepareGet(NAMESPACE, table, userId, readField));
+        }
+        pipelinedOperations.getAll(transaction, gets);
+      } else {
+        for (int userId : userIds) {
+          String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+          transaction.get(prepareGet(NAMESPACE, table, userId, readField));
+        }
+      }
+      if (readMode.equals(READ_MODE_READ_ONLY)) {
+        transaction.rollback();
+      } else {
+        transaction.commit();
+      }
+    } catch (Exception e) {
+      transaction.abort();
+      throw e;
+    }
   }
 
   @Override
   public void close() {
     try {
-      manager.close();
+      if (manager != null) {
+        manager.close();
+      } else {
+        storage.close();
+      }
     } catch (Exception e) {
-      logWarn("Failed to close the transaction manager", e);
+      logWarn("Failed to close the transaction manager or the storage", e);
+    }
+    if (pipelinedOperations != null) {
+      pipelinedOperations.close();
     }
 
-    setState(
+    JsonObjectBuilder state =
         Json.createObjectBuilder()
             .add("transaction-retry-count", transactionRetryCount.toString())
-            .build());
+            .add("read-mode", readMode)
+            .add("ops-per-tx", opsPerTx)
+            .add("pipelined-ops", pipelinedOperations != null);
+    latencyRecorder.close(state);
+    logicalClients.close(state);
+    setState(state.build());
   }
 }
@@ -0,0 +1,127 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareInsert;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
+import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.modules.TimeBasedProcessor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Workload D: Read latest workload. Each operation is a read with a probability of 95% and an
+ * insert of a new record otherwise. The reads access the recently inserted records the most with
+ * the "latest" request distribution by default. The inserted records remain after the run, so the
+ * records must be loaded again before running this workload again.
+ */
+public class WorkloadD extends TimeBasedProcessor {
+  private static final long DEFAULT_OPS_PER_TX = 2;
+  private static final int READ_PERCENTAGE = 95;
+  private final DistributedTransactionManager manager;
+  private final InsertKeySequencer insertKeySequencer;
+  private final KeyGenerator keyGenerator;
+  private final int opsPerTx;
+  private final PayloadGenerator payloadGenerator;
+  private final RecordFields recordFields;
+  private final String table;
+
+  private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LatencyRecorder latencyRecorder;
+
+  public WorkloadD(Config config) {
+    super(config);
+    this.manager = Common.getTransactionManager(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.latencyRecorder = new LatencyRecorder(config);
+    int recordCount = getRecordCount(config);
+    this.insertKeySequencer = new InsertKeySequencer(recordCount);
+    this.keyGenerator =
+        KeyGenerator.create(
+            config, recordCount, insertKeySequencer::getRecordCount, KeyGenerator.LATEST);
+    this.payloadGenerator = new PayloadGenerator(config);
+    this.recordFields = new RecordFields(config);
+    this.table = getTable(config);
+    this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
+  }
+
+  @Override
+  public void executeEach() throws TransactionException {
+    long start = arrivalSchedule.awaitNext();
+    int[] readUserIds = new int[opsPerTx];
+    int[] insertUserIds = new int[opsPerTx];
+    Column<?>[][] records = new Column<?>[opsPerTx][];
+    int readCount = 0;
+    int insertCount = 0;
+    for (int i = 0; i < opsPerTx; ++i) {
+      if (ThreadLocalRandom.current().nextInt(100) < READ_PERCENTAGE) {
+        readUserIds[readCount++] = keyGenerator.next(ThreadLocalRandom.current());
+      } else {
+        insertUserIds[insertCount] = insertKeySequencer.next();
+        records[insertCount++] = payloadGenerator.nextRecord(ThreadLocalRandom.current());
+      }
+    }
+
+    try {
+      while (true) {
+        long attemptStart = System.nanoTime();
+        DistributedTransaction transaction = manager.start();
+        try {
+          for (int i = 0; i < readCount; i++) {
+            String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+            transaction.get(prepareGet(NAMESPACE, table, readUserIds[i], readField));
+          }
+          for (int i = 0; i < insertCount; i++) {
+            transaction.insert(prepareInsert(NAMESPACE, table, insertUserIds[i], records[i]));
+          }
+          transaction.commit();
+          latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
+          break;
+        } catch (CrudConflictException | CommitConflictException e) {
+          transaction.abort();
+          latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
+          transactionRetryCount.increment();
+        } catch (Exception e) {
+          transaction.abort();
+          throw e;
+        }
+      }
+    } finally {
+      for (int i = 0; i < insertCount; i++) {
+        insertKeySequencer.acknowledge(insertUserIds[i]);
+      }
+    }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
+  }
+
+  @Override
+  public void close() {
+    try {
+      manager.close();
+    } catch (Exception e) {
+      logWarn("Failed to close the transaction manager", e);
+    }
+
+    JsonObjectBuilder state =
+        Json.createObjectBuilder()
+            .add("transaction-retry-count", transactionRetryCount.toString());
+    latencyRecorder.close(state);
+    setState(state.build());
+  }
+}
@@ -0,0 +1,139 @@
+package com.scalar.db.benchmarks.ycsb;
+
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getClusteredTable;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordsPerPartition;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareClusteredInsert;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareScan;
+
+import com.scalar.db.api.DistributedTransaction;
+import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.benchmarks.ArrivalSchedule;
+import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.exception.transaction.CommitConflictException;
+import com.scalar.db.exception.transaction.CrudConflictException;
+import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
+import com.scalar.kelpie.config.Config;
+import com.scalar.kelpie.modules.TimeBasedProcessor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.json.Json;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * Workload E: Short ranges workload. Each operation is a scan of up to "max_scan_length" records
+ * with a probability of 95% and an insert of a new record otherwise. This workload uses the table
+ * with a clustering key, which must be loaded with "use_clustered_table" set to true. A scan does
+ * not go beyond the partition of its start key. The inserted records remain after the run, so the
+ * records must be loaded again before running this workload again.
+ */
+public class WorkloadE extends TimeBasedProcessor {
+  private static final long DEFAULT_OPS_PER_TX = 1;
+  private static final int SCAN_PERCENTAGE = 95;
+  private static final String MAX_SCAN_LENGTH = "max_scan_length";
+  private static final long DEFAULT_MAX_SCAN_LENGTH = 100;
+  private final DistributedTransactionManager manager;
+  private final InsertKeySequencer insertKeySequencer;
+  private final KeyGenerator keyGenerator;
+  private final int opsPerTx;
+  private final PayloadGenerator payloadGenerator;
+  private final int maxScanLength;
+  private final int recordsPerPartition;
+  private final String table;
+
+  private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LatencyRecorder latencyRecorder;
+
+  public WorkloadE(Config config) {
+    super(config);
+    this.manager = Common.getTransactionManager(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.latencyRecorder = new LatencyRecorder(config);
+    int recordCount = getRecordCount(config);
+    this.insertKeySequencer = new InsertKeySequencer(recordCount);
+    this.keyGenerator =
+        KeyGenerator.create(
+            config, recordCount, insertKeySequencer::getRecordCount, KeyGenerator.ZIPFIAN);
+    this.payloadGenerator = new PayloadGenerator(config);
+    this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
+    this.maxScanLength =
+        (int) config.getUserLong(CONFIG_NAME, MAX_SCAN_LENGTH, DEFAULT_MAX_SCAN_LENGTH);
+    if (maxScanLength < 1) {
+      throw new IllegalArgumentException(MAX_SCAN_LENGTH + " must be positive.");
+    }
+    this.recordsPerPartition = getRecordsPerPartition(config);
+    this.table = getClusteredTable(config);
+  }
+
+  @Override
+  public void executeEach() throws TransactionException {
+    long start = arrivalSchedule.awaitNext();
+    int[] scanStartIds = new int[opsPerTx];
+    int[] scanLengths = new int[opsPerTx];
+    int[] insertUserIds = new int[opsPerTx];
+    Column<?>[][] records = new Column<?>[opsPerTx][];
+    int scanCount = 0;
+    int insertCount = 0;
+    for (int i = 0; i < opsPerTx; ++i) {
+      if (ThreadLocalRandom.current().nextInt(100) < SCAN_PERCENTAGE) {
+        scanStartIds[scanCount] = keyGenerator.next(ThreadLocalRandom.current());
+        scanLengths[scanCount++] = ThreadLocalRandom.current().nextInt(maxScanLength) + 1;
+      } else {
+        insertUserIds[insertCount] = insertKeySequencer.next();
+        records[insertCount++] = payloadGenerator.nextRecord(ThreadLocalRandom.current());
+      }
+    }
+
+    try {
+      while (true) {
+        long attemptStart = System.nanoTime();
+        DistributedTransaction transaction = manager.start();
+        try {
+          for (int i = 0; i < scanCount; i++) {
+            transaction.scan(
+                prepareScan(table, scanStartIds[i], scanLengths[i], recordsPerPartition));
+          }
+          for (int i = 0; i < insertCount; i++) {
+            transaction.insert(
+                prepareClusteredInsert(table, insertUserIds[i], recordsPerPartition, records[i]));
+          }
+          transaction.commit();
+          latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
+          break;
+        } catch (CrudConflictException | CommitConflictException e) {
+          transaction.abort();
+          latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
+          transactionRetryCount.increment();
+        } catch (Exception e) {
+          transaction.abort();
+          throw e;
+        }
+      }
+    } finally {
+      for (int i = 0; i < insertCount; i++) {
+        insertKeySequencer.acknowledge(insertUserIds[i]);
+      }
+    }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
+  }
+
+  @Override
+  public void close() {
+    try {
+      manager.close();
+    } catch (Exception e) {
+      logWarn("Failed to close the transaction manager", e);
+    }
+
+    JsonObjectBuilder state =
+        Json.createObjectBuilder()
+            .add("transaction-retry-count", transactionRetryCount.toString());
+    latencyRecorder.close(state);
+    setState(state.build());
+  }
+}
@@ -1,18 +1,25 @@
 package com.scalar.db.benchmarks.ycsb;
 
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.CONFIG_NAME;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.NAMESPACE;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.OPS_PER_TX;
-import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getPayloadSize;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getRecordCount;
+import static com.scalar.db.benchmarks.ycsb.YcsbCommon.getTable;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.prepareGet;
 import static com.scalar.db.benchmarks.ycsb.YcsbCommon.preparePut;
 
 import com.scalar.db.api.DistributedTransaction;
 import com.scalar.db.api.DistributedTransactionManager;
+import com.scalar.db.api.Get;
+import com.scalar.db.api.Put;
+import com.scalar.db.benchmarks.ArrivalSchedule;
 import com.scalar.db.benchmarks.Common;
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.benchmarks.LogicalClients;
 import com.scalar.db.exception.transaction.CommitConflictException;
 import com.scalar.db.exception.transaction.CrudConflictException;
 import com.scalar.db.exception.transaction.TransactionException;
+import com.scalar.db.io.Column;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.TimeBasedProcessor;
 import java.util.ArrayList;
@@ -20,6 +27,7 @@ import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.LongAdder;
 import javax.json.Json;
+import javax.json.JsonObjectBuilder;
 
 /** Workload F: Read-modify-write. */
 public class WorkloadF extends TimeBasedProcessor {
@@ -27,50 +35,83 @@ public class WorkloadF extends TimeBasedProcessor {
   // operation)
   private static final long DEFAULT_OPS_PER_TX = 1;
   private final DistributedTransactionManager manager;
-  private final int recordCount;
+  private final KeyGenerator keyGenerator;
   private final int opsPerTx;
-  private final int payloadSize;
+  private final PayloadGenerator payloadGenerator;
+  private final RecordFields recordFields;
+  private final String table;
+  private final PipelinedOperations pipelinedOperations; // null unless the ops are pipelined
 
   private final LongAdder transactionRetryCount = new LongAdder();
+  private final ArrivalSchedule arrivalSchedule;
+  private final LogicalClients logicalClients;
+  private final LatencyRecorder latencyRecorder;
 
   public WorkloadF(Config config) {
     super(config);
     this.manager = Common.getTransactionManager(config);
-    this.recordCount = getRecordCount(config);
+    this.arrivalSchedule = new ArrivalSchedule(config);
+    this.logicalClients = new LogicalClients(config, arrivalSchedule);
+    this.latencyRecorder = new LatencyRecorder(config);
+    this.keyGenerator = KeyGenerator.create(config, getRecordCount(config));
     this.opsPerTx = (int) config.getUserLong(CONFIG_NAME, OPS_PER_TX, DEFAULT_OPS_PER_TX);
-    this.payloadSize = getPayloadSize(config);
+    this.payloadGenerator = new PayloadGenerator(config);
+    this.recordFields = new RecordFields(config);
+    this.table = getTable(config);
+    this.pipelinedOperations =
+        config.getUserBoolean(CONFIG_NAME, PipelinedOperations.PIPELINED_OPS, false)
+            ? new PipelinedOperations(config, logicalClients.getClientCount(config), opsPerTx)
+            : null;
   }
 
   @Override
-  public void executeEach() throws TransactionException {
-    List<Integer> userIds = new ArrayList<>(opsPerTx);
-    List<String> payloads = new ArrayList<>(opsPerTx);
-    char[] payload = new char[payloadSize];
-    for (int i = 0; i < opsPerTx; ++i) {
-      userIds.add(ThreadLocalRandom.current().nextInt(recordCount));
+  public void executeEach() throws Exception {
+    logicalClients.execute(this::execute);
+  }
 
-      YcsbCommon.randomFastChars(ThreadLocalRandom.current(), payload);
-      payloads.add(new String(payload));
+  private void execute(long start) throws TransactionException {
+    int[] userIds = new int[opsPerTx];
+    Column<?>[] payloads = new Column<?>[opsPerTx];
+    for (int i = 0; i < opsPerTx; ++i) {
+      userIds[i] = keyGenerator.next(ThreadLocalRandom.current());
+      payloads[i] = payloadGenerator.next(ThreadLocalRandom.current());
     }
 
     while (true) {
+      long attemptStart = System.nanoTime();
       DistributedTransaction transaction = manager.start();
       try {
-        for (int i = 0; i < userIds.size(); i++) {
-          int userId = userIds.get(i);
-          transaction.get(prepareGet(userId));
-          transaction.put(preparePut(userId, payloads.get(i)));
+        if (pipelinedOperations != null) {
+          List<Get> gets = new ArrayList<>(userIds.length);
+          List<Put> puts = new ArrayList<>(userIds.length);
+          for (int i = 0; i < userIds.length; i++) {
+            String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+            gets.add(prepareGet(NAMESPACE, table, userIds[i], readField));
+            puts.add(preparePut(NAMESPACE, table, userIds[i], payloads[i]));
+          }
+          pipelinedOperations.getAll(transaction, gets);
+          transaction.mutate(puts);
+        } else {
+          for (int i = 0; i < userIds.length; i++) {
+            int userId = userIds[i];
+            String readField = recordFields.nextReadField(ThreadLocalRandom.current());
+            transaction.get(prepareGet(NAMESPACE, table, userId, readField));
+            transaction.put(preparePut(NAMESPACE, table, userId, payloads[i]));
+          }
         }
         transaction.commit();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         break;
       } catch (CrudConflictException | CommitConflictException e) {
         transaction.abort();
+        latencyRecorder.record(YcsbCommon.ATTEMPT, attemptStart);
         transactionRetryCount.increment();
       } catch (Exception e) {
         transaction.abort();
         throw e;
       }
     }
+    latencyRecorder.record(YcsbCommon.TRANSACTION, start);
   }
 
   @Override
@@ -80,10 +121,17 @@ public class WorkloadF extends TimeBasedProcessor {
     } catch (Exception e) {
       logWarn("Failed to close the transaction manager", e);
     }
+    if (pipelinedOperations != null) {
+      pipelinedOperations.close();
+    }
 
-    setState(
+    JsonObjectBuilder state =
         Json.createObjectBuilder()
             .add("transaction-retry-count", transactionRetryCount.toString())
-            .build());
+            .add("ops-per-tx", opsPerTx)
+            .add("pipelined-ops", pipelinedOperations != null);
+    latencyRecorder.close(state);
+    logicalClients.close(state);
+    setState(state.build());
   }
 }
@@ -1,26 +1,39 @@
 package com.scalar.db.benchmarks.ycsb;
 
+import java.util.Collections;
 import java.util.Random;
 
 import com.scalar.db.api.Consistency;
 import com.scalar.db.api.Get;
 import com.scalar.db.api.Insert;
+import com.scalar.db.api.InsertBuilder;
 import com.scalar.db.api.Put;
+import com.scalar.db.api.PutBuilder;
+import com.scalar.db.api.Scan;
+import com.scalar.db.io.Column;
 import com.scalar.db.io.Key;
 import com.scalar.db.io.TextColumn;
 import com.scalar.kelpie.config.Config;
+import javax.annotation.Nullable;
 
 public class YcsbCommon {
   static final long DEFAULT_LOAD_CONCURRENCY = 1;
   static final long DEFAULT_LOAD_BATCH_SIZE = 1;
   static final long DEFAULT_RECORD_COUNT = 1000;
   static final long DEFAULT_PAYLOAD_SIZE = 1000;
+  static final long DEFAULT_RECORDS_PER_PARTITION = 1000;
+  static final long DEFAULT_PAYLOAD_RING_SIZE = 0; // a random payload for each write
   static final String NAMESPACE = "ycsb";
   static final String NAMESPACE_PRIMARY = "ycsb_primary"; // for multi-storage mode
   static final String NAMESPACE_SECONDARY = "ycsb_secondary"; // for multi-storage mode
   static final String TABLE = "usertable";
+  static final String CLUSTERED_TABLE = "usertable_clustered"; // for scan workloads
+  static final String BLOB_TABLE_SUFFIX = "_blob"; // for the blob payload type
+  static final String FIELDS_TABLE_SUFFIX = "_fields"; // for multi-field records
+  static final String YCSB_PARTITION = "ycsb_partition"; // for scan workloads
   static final String YCSB_KEY = "ycsb_key";
   static final String PAYLOAD = "payload";
+  static final String PAYLOAD_BLOB = "payload_blob"; // for the blob payload type
   static final String DATA_TAG = "data_tag";
   static final String CONFIG_NAME = "ycsb_config";
   static final String LOAD_CONCURRENCY = "load_concurrency";
@@ -28,9 +41,17 @@ public class YcsbCommon {
   static final String LOAD_OVERWRITE = "load_overwrite";
   static final String RECORD_COUNT = "record_count";
   static final String PAYLOAD_SIZE = "payload_size";
+  static final String PAYLOAD_RING_SIZE = "payload_ring_size";
+  static final String PAYLOAD_TYPE = "payload_type";
+  static final String PAYLOAD_TYPE_TEXT = "text";
+  static final String PAYLOAD_TYPE_BLOB = "blob";
+  static final String USE_CLUSTERED_TABLE = "use_clustered_table";
+  static final String RECORDS_PER_PARTITION = "records_per_partition";
   static final String OPS_PER_TX = "ops_per_tx";
   static final String USER_COUNT = "user_count";
   static final String PASSWORD_BASE = "password";
+  static final String TRANSACTION = "transaction"; // for latency recording
+  static final String ATTEMPT = "transaction.attempt"; // for latency recording
 
   // ABAC属性タイプの定数
   static final String ATTRIBUTE_TYPE_LEVEL = "level";
@@ -64,6 +85,47 @@ public class YcsbCommon {
     return prepareGet(NAMESPACE, TABLE, key);
   }
 
+  /**
+   * Prepares a {@code Get} of a record that fetches only a column if specified.
+   *
+   * @param namespace a namespace of the table
+   * @param table a table of the record
+   * @param key a key of the record
+   * @param projection a column to fetch, or null to fetch all the columns
+   * @return a {@code Get} object
+   */
+  public static Get prepareGet(
+      String namespace, String table, int key, @Nullable String projection) {
+    return prepareGet(namespace, table, key, projection, Consistency.LINEARIZABLE);
+  }
+
+  /**
+   * Prepares a {@code Get} of a record with the specified consistency, which matters when the
+   * record is read through the storage API.
+   *
+   * @param namespace a namespace of the table
+   * @param table a table of the record
+   * @param key a key of the record
+   * @param projection a column to fetch, or null to fetch all the columns
+   * @param consistency a consistency level
+   * @return a {@code Get} object
+   */
+  public static Get prepareGet(
+      String namespace,
+      String table,
+      int key,
+      @Nullable String projection,
+      Consistency consistency) {
+    return Get.newBuilder()
+        .namespace(namespace)
+        .table(table)
+        .partitionKey(Key.ofInt(YCSB_KEY, key))
+        .projections(
+            projection == null ? Collections.emptyList() : Collections.singletonList(projection))
+        .consistency(consistency)
+        .build();
+  }
+
   public static Get prepareGet(String namespace, int key) {
     return prepareGet(namespace, TABLE, key);
   }
@@ -86,13 +148,20 @@ public class YcsbCommon {
   }
 
   public static Put preparePut(String namespace, String table, int key, String payload) {
-    return Put.newBuilder()
-        .namespace(namespace)
-        .table(table)
-        .partitionKey(Key.ofInt(YCSB_KEY, key))
-        .value(TextColumn.of(PAYLOAD, payload))
-        .consistency(Consistency.LINEARIZABLE)
-        .build();
+    return preparePut(namespace, table, key, TextColumn.of(PAYLOAD, payload));
+  }
+
+  public static Put preparePut(String namespace, String table, int key, Column<?>... payloads) {
+    PutBuilder.Buildable builder =
+        Put.newBuilder()
+            .namespace(namespace)
+            .table(table)
+            .partitionKey(Key.ofInt(YCSB_KEY, key))
+            .consistency(Consistency.LINEARIZABLE);
+    for (Column<?> payload : payloads) {
+      builder.value(payload);
+    }
+    return builder.build();
   }
 
   public static Insert prepareInsert(int key, String payload) {
@@ -104,12 +173,20 @@ public class YcsbCommon {
   }
 
   public static Insert prepareInsert(String namespace, String table, int key, String payload) {
-    return Insert.newBuilder()
-        .namespace(namespace)
-        .table(table)
-        .partitionKey(Key.ofInt(YCSB_KEY, key))
-        .value(TextColumn.of(PAYLOAD, payload))
-        .build();
+    return prepareInsert(namespace, table, key, TextColumn.of(PAYLOAD, payload));
+  }
+
+  public static Insert prepareInsert(
+      String namespace, String table, int key, Column<?>... payloads) {
+    InsertBuilder.Buildable builder =
+        Insert.newBuilder()
+            .namespace(namespace)
+            .table(table)
+            .partitionKey(Key.ofInt(YCSB_KEY, key));
+    for (Column<?> payload : payloads) {
+      builder.value(payload);
+    }
+    return builder.build();
   }
 
   public static Insert prepareInsertWithDataTag(int key, String payload, String dataTag) {
@@ -127,6 +204,70 @@ public class YcsbCommon {
         .build();
   }
 
+  public static Get prepareClusteredGet(String table, int key, int recordsPerPartition) {
+    return Get.newBuilder()
+        .namespace(NAMESPACE)
+        .table(table)
+        .partitionKey(prepareClusteredPartitionKey(key, recordsPerPartition))
+        .clusteringKey(Key.ofInt(YCSB_KEY, key))
+        .consistency(Consistency.LINEARIZABLE)
+        .build();
+  }
+
+  public static Put prepareClusteredPut(
+      String table, int key, int recordsPerPartition, Column<?>... payloads) {
+    PutBuilder.Buildable builder =
+        Put.newBuilder()
+            .namespace(NAMESPACE)
+            .table(table)
+            .partitionKey(prepareClusteredPartitionKey(key, recordsPerPartition))
+            .clusteringKey(Key.ofInt(YCSB_KEY, key))
+            .consistency(Consistency.LINEARIZABLE);
+    for (Column<?> payload : payloads) {
+      builder.value(payload);
+    }
+    return builder.build();
+  }
+
+  public static Insert prepareClusteredInsert(
+      String table, int key, int recordsPerPartition, Column<?>... payloads) {
+    InsertBuilder.Buildable builder =
+        Insert.newBuilder()
+            .namespace(NAMESPACE)
+            .table(table)
+            .partitionKey(prepareClusteredPartitionKey(key, recordsPerPartition))
+            .clusteringKey(Key.ofInt(YCSB_KEY, key));
+    for (Column<?> payload : payloads) {
+      builder.value(payload);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Prepares a {@code Scan} of the records from a start key in the clustered table. The scan does
+   * not go beyond the partition of the start key, so it can return fewer records than the limit.
+   *
+   * @param table a clustered table
+   * @param startKey a key to start the scan from
+   * @param limit the maximum number of records to scan
+   * @param recordsPerPartition the number of records in a partition
+   * @return a {@code Scan} object
+   */
+  public static Scan prepareScan(String table, int startKey, int limit, int recordsPerPartition) {
+    return Scan.newBuilder()
+        .namespace(NAMESPACE)
+        .table(table)
+        .partitionKey(prepareClusteredPartitionKey(startKey, recordsPerPartition))
+        .start(Key.ofInt(YCSB_KEY, startKey))
+        .limit(limit)
+        .consistency(Consistency.LINEARIZABLE)
+        .build();
+  }
+
+  private static Key prepareClusteredPartitionKey(int key, int recordsPerPartition) {
+    return Key.ofInt(YCSB_PARTITION, key / recordsPerPartition);
+  }
+
   public static int getLoadConcurrency(Config config) {
     return (int) config.getUserLong(CONFIG_NAME, LOAD_CONCURRENCY, DEFAULT_LOAD_CONCURRENCY);
   }
@@ -147,6 +288,52 @@ public class YcsbCommon {
     return (int) config.getUserLong(CONFIG_NAME, PAYLOAD_SIZE, DEFAULT_PAYLOAD_SIZE);
   }
 
+  public static String getPayloadType(Config config) {
+    return config.getUserString(CONFIG_NAME, PAYLOAD_TYPE, PAYLOAD_TYPE_TEXT);
+  }
+
+  public static int getPayloadRingSize(Config config) {
+    return (int) config.getUserLong(CONFIG_NAME, PAYLOAD_RING_SIZE, DEFAULT_PAYLOAD_RING_SIZE);
+  }
+
+  /**
+   * Returns the table of the records, which is {@code usertable_fields} for multi-field records or
+   * {@code usertable_blob} for the blob payload type.
+   *
+   * @param config a benchmark config
+   * @return the name of the table
+   */
+  public static String getTable(Config config) {
+    return TABLE + getTableSuffix(config);
+  }
+
+  /**
+   * Returns the clustered table of the records, which is {@code usertable_clustered_fields} for
+   * multi-field records or {@code usertable_clustered_blob} for the blob payload type.
+   *
+   * @param config a benchmark config
+   * @return the name of the clustered table
+   */
+  public static String getClusteredTable(Config config) {
+    return CLUSTERED_TABLE + getTableSuffix(config);
+  }
+
+  private static String getTableSuffix(Config config) {
+    if (new RecordFields(config).isMultiField()) {
+      return FIELDS_TABLE_SUFFIX;
+    }
+    return PAYLOAD_TYPE_BLOB.equals(getPayloadType(config)) ? BLOB_TABLE_SUFFIX : "";
+  }
+
+  public static boolean getUseClusteredTable(Config config) {
+    return config.getUserBoolean(CONFIG_NAME, USE_CLUSTERED_TABLE, false);
+  }
+
+  public static int getRecordsPerPartition(Config config) {
+    return (int)
+        config.getUserLong(CONFIG_NAME, RECORDS_PER_PARTITION, DEFAULT_RECORDS_PER_PARTITION);
+  }
+
   public static int getUserCount(Config config) {
     long userCount = config.getUserLong(CONFIG_NAME, USER_COUNT, 0L);
     if (userCount <= 0) {
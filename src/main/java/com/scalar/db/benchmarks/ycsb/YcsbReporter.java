@@ -1,5 +1,7 @@
 package com.scalar.db.benchmarks.ycsb;
 
+import com.scalar.db.benchmarks.LatencyRecorder;
+import com.scalar.db.benchmarks.LogicalClients;
 import com.scalar.kelpie.config.Config;
 import com.scalar.kelpie.modules.PostProcessor;
 import com.scalar.kelpie.stats.Stats;
@@ -48,6 +50,25 @@ public class YcsbReporter extends PostProcessor {
             + "Transaction retry count: "
             + getPreviousState().getString("transaction-retry-count"));
 
+    if (getPreviousState().containsKey("read-mode")) {
+      logInfo("Read mode: " + getPreviousState().getString("read-mode"));
+    }
+    if (getPreviousState().containsKey("ops-per-tx")) {
+      logInfo(
+          "Operations per transaction: "
+              + getPreviousState().getInt("ops-per-tx")
+              + (getPreviousState().getBoolean("pipelined-ops") ? " (pipelined)" : ""));
+    }
+
+    String latencySummary = LatencyRecorder.summarize(getPreviousState());
+    if (!latencySummary.isEmpty()) {
+      logInfo(latencySummary);
+    }
+    String clientSummary = LogicalClients.summarize(getPreviousState(), config.getRunForSec());
+    if (!clientSummary.isEmpty()) {
+      logInfo(clientSummary);
+    }
+
     // ABAC関連のメトリクスがある場合は追加表示
     if (getPreviousState().getString("authorization-success-count") != null) {
       StringBuilder abacReport = new StringBuilder();